@@ -0,0 +1,110 @@
+package com.utp.benchmark;
+
+import com.utp.model.FechaHoraConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de las marcas de un empleado sobre una base SQLite temporal con el
+ * mismo esquema de asistencia: leer toda la tabla y filtrar en la JVM frente a
+ * la consulta por id_personal y rango de fechas que usa
+ * idx_asistencia_personal_fecha.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConsultaAsistenciaBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private Path archivo;
+    private Connection conexion;
+    private int idBuscado;
+
+    @Setup
+    public void preparar() throws Exception {
+        archivo = Files.createTempFile("asistencia-bench", ".sqlite");
+        conexion = DriverManager.getConnection("jdbc:sqlite:" + archivo);
+        idBuscado = DatosSinteticos.EMPLEADOS / 2;
+
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE TABLE asistencia (id_asistencia integer, fecha varchar(255), "
+                    + "ip_marcador varchar(255), id_autorizacion integer, id_movimiento integer, "
+                    + "id_personal integer, primary key (id_asistencia))");
+        }
+
+        conexion.setAutoCommit(false);
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO asistencia (id_asistencia, fecha, ip_marcador, id_movimiento, id_personal) "
+                        + "VALUES (?, ?, ?, ?, ?)")) {
+            var asistencias = DatosSinteticos.asistencias(DatosSinteticos.personal(), filas);
+            for (var a : asistencias) {
+                ps.setInt(1, a.getIdAsistencia());
+                ps.setString(2, FechaHoraConverter.aTexto(a.getFecha()));
+                ps.setString(3, a.getIpMarcador());
+                ps.setInt(4, a.getMovimiento().getIdMovimiento());
+                ps.setInt(5, a.getPersonal().getIdPersonal());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE INDEX idx_asistencia_personal_fecha ON asistencia (id_personal, fecha)");
+        }
+        conexion.commit();
+        conexion.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void cerrar() throws Exception {
+        conexion.close();
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public List<Integer> leerTodoYFiltrar() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id_asistencia, fecha, ip_marcador, id_movimiento, id_personal "
+                     + "FROM asistencia")) {
+            while (rs.next()) {
+                if (rs.getInt("id_personal") == idBuscado) {
+                    ids.add(rs.getInt("id_asistencia"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Integer> consultaPorPersonalYFecha() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "SELECT id_asistencia, fecha, ip_marcador, id_movimiento, id_personal FROM asistencia "
+                        + "WHERE id_personal = ? AND fecha >= ? AND fecha < ? ORDER BY fecha DESC")) {
+            ps.setInt(1, idBuscado);
+            ps.setString(2, "0000-01-01");
+            ps.setString(3, "9999-12-31");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id_asistencia"));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,94 @@
+package com.utp.benchmark;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Cargo;
+import com.utp.model.Documento;
+import com.utp.model.Movimiento;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Genera grafos de entidades parecidos a los de producción: pocos cargos y
+ * movimientos compartidos, un Personal por empleado y varias marcas por día.
+ */
+final class DatosSinteticos {
+
+    static final int EMPLEADOS = 500;
+
+
+    private DatosSinteticos() {
+    }
+
+    static List<Personal> personal() {
+        Cargo cargo = new Cargo();
+        cargo.setIdCargo(2);
+        cargo.setDescripcion("Empleado de Planta");
+
+        Documento dni = new Documento();
+        dni.setIdDocumento(1);
+        dni.setDescripcion("DNI");
+
+        List<Personal> lista = new ArrayList<>(EMPLEADOS);
+        for (int i = 1; i <= EMPLEADOS; i++) {
+            Personal p = new Personal();
+            p.setIdPersonal(i);
+            p.setNombre("Nombre" + i);
+            p.setApellPaterno("Paterno" + i);
+            p.setApellMaterno("Materno" + i);
+            p.setNroDocumento(String.format("%08d", i));
+            p.setEmail("empleado" + i + "@test.com");
+            p.setFechaIngreso(LocalDate.of(2022, 1, 1));
+            p.setFechaNacimiento(LocalDate.of(2000, 1, 1));
+            p.setCargo(cargo);
+            p.setDocumento(dni);
+            lista.add(p);
+        }
+        return lista;
+    }
+
+    static List<Usuario> usuarios(List<Personal> personal) {
+        List<Usuario> lista = new ArrayList<>(personal.size());
+        for (Personal p : personal) {
+            Usuario u = new Usuario();
+            u.setIdUsuario(p.getIdPersonal());
+            u.setUsuario("usuario" + p.getIdPersonal());
+            u.setPersonal(p);
+            lista.add(u);
+        }
+        return lista;
+    }
+
+    static List<Asistencia> asistencias(List<Personal> personal, int filas) {
+        Movimiento entrada = movimiento(1, "Entrada", "ENT");
+        Movimiento salida = movimiento(2, "Salida", "SAL");
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        List<Asistencia> lista = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            Personal p = personal.get(i % personal.size());
+            int dia = i / (personal.size() * 2);
+
+            Asistencia a = new Asistencia();
+            a.setIdAsistencia(i + 1);
+            a.setPersonal(p);
+            a.setMovimiento((i / personal.size()) % 2 == 0 ? entrada : salida);
+            a.setFecha(inicio.plusDays(dia).plusMinutes(i % 60));
+            a.setIpMarcador("192.168.1.100 | Lat: -12.1300502, Lng: -76.94863");
+            lista.add(a);
+        }
+        return lista;
+    }
+
+    private static Movimiento movimiento(int id, String descripcion, String abreviatura) {
+        Movimiento m = new Movimiento();
+        m.setIdMovimiento(id);
+        m.setDescripcion(descripcion);
+        m.setAbreDesc(abreviatura);
+        return m;
+    }
+}
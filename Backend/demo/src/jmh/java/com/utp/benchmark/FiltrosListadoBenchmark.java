@@ -0,0 +1,63 @@
+package com.utp.benchmark;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros en memoria de los listados para un usuario que no es administrador:
+ * el patrón findAll().stream().filter(...) de AsistenciaController.listar y
+ * las dos búsquedas lineales de PersonalController.listar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class FiltrosListadoBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private List<Asistencia> asistencias;
+    private List<Personal> personal;
+    private List<Usuario> usuarios;
+    private Integer idBuscado;
+
+    @Setup
+    public void preparar() {
+        personal = DatosSinteticos.personal();
+        usuarios = DatosSinteticos.usuarios(personal);
+        asistencias = DatosSinteticos.asistencias(personal, filas);
+        idBuscado = personal.size() / 2;
+    }
+
+    @Benchmark
+    public List<Asistencia> asistenciasDeUnEmpleado() {
+        return asistencias.stream()
+                .filter(a -> a.getPersonal().getIdPersonal().equals(idBuscado))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Personal> personalDelUsuario() {
+        Usuario usuario = usuarios.stream()
+                .filter(u -> u.getIdUsuario().equals(idBuscado))
+                .findFirst()
+                .orElse(null);
+
+        if (usuario == null || usuario.getPersonal() == null) {
+            return List.of();
+        }
+
+        Integer idPersonal = usuario.getPersonal().getIdPersonal();
+        return personal.stream()
+                .filter(per -> per.getIdPersonal().equals(idPersonal))
+                .toList();
+    }
+}
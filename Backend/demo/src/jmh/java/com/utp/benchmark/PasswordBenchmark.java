@@ -0,0 +1,36 @@
+package com.utp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de BCryptPasswordEncoder.matches tal como lo usa UsuarioService.autenticar,
+ * para distintos factores de costo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    @Param({"10", "12"})
+    public int costo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(costo);
+        hash = encoder.encode("123456");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("123456", hash);
+    }
+}
@@ -0,0 +1,43 @@
+package com.utp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.config.JacksonConfig;
+import com.utp.model.Asistencia;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de la respuesta de GET /api/asistencia: cada fila lleva
+ * su Personal con Cargo y Documento y su Movimiento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SerializacionAsistenciaBenchmark {
+
+    @Param({"10000", "100000"})
+    public int filas;
+
+    private ObjectMapper mapper;
+    private List<Asistencia> asistencias;
+
+    @Setup
+    public void preparar() {
+        // Misma configuración base que el ObjectMapper de Spring MVC
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().formatoFechas().customize(builder);
+        mapper = builder.build();
+        asistencias = DatosSinteticos.asistencias(DatosSinteticos.personal(), filas);
+    }
+
+    @Benchmark
+    public byte[] serializarListado() throws Exception {
+        return mapper.writeValueAsBytes(asistencias);
+    }
+}
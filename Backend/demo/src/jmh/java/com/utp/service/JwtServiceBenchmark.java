@@ -0,0 +1,71 @@
+package com.utp.service;
+
+import com.utp.model.Cargo;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+import com.utp.repository.UsuarioRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de emitir y verificar tokens: generateToken en el login,
+ * extractAllClaims como verificación completa (firma HMAC) y parse como
+ * la ruta que recorre cada request autenticado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        // Los tokens de generateToken llevan todos los claims: el repositorio no se consulta
+        jwtService = new JwtService(new SimpleMeterRegistry(), Mockito.mock(UsuarioRepository.class));
+
+        Cargo cargo = new Cargo();
+        cargo.setIdCargo(2);
+        cargo.setDescripcion("Empleado de Planta");
+
+        Personal personal = new Personal();
+        personal.setIdPersonal(2);
+        personal.setCargo(cargo);
+
+        usuario = new Usuario();
+        usuario.setIdUsuario(2);
+        usuario.setUsuario("empleado");
+        usuario.setPersonal(personal);
+
+        token = jwtService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal parse() {
+        return jwtService.parse(token);
+    }
+}
@@ -0,0 +1,40 @@
+package com.utp.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Caché en memoria (Caffeine, ver spring.cache.*) de los catálogos: movimiento,
+ * cargo, rol y documento. Los repositorios leen con @Cacheable y vacían la
+ * caché completa del catálogo en cada save o deleteById; las entradas vencen
+ * además a los 10 minutos.
+ *
+ * Lo que devuelven findAll y findById es la misma instancia para todos los
+ * requests y no debe modificarse: sólo se lee o se asigna como referencia
+ * (por ejemplo el cargo de un personal). Para editar un registro, los
+ * repositorios ofrecen una búsqueda sin caché (findByIdCargo, findByIdRol) que
+ * devuelve una instancia propia.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MOVIMIENTOS = "movimientos";
+    public static final String CARGOS = "cargos";
+    public static final String ROLES = "roles";
+    public static final String DOCUMENTOS = "documentos";
+
+    // Los GET de catálogos responden con ETag; si coincide con If-None-Match
+    // se devuelve 304 sin cuerpo
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagCatalogos() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/api/movimiento", "/api/cargo", "/api/cargo/*",
+                "/api/rol", "/api/rol/*", "/api/documento");
+        return registro;
+    }
+}
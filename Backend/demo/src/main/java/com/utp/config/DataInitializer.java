@@ -17,6 +17,9 @@ import com.utp.repository.PersonalRepository;
 import com.utp.repository.UsuarioRepository;
 import com.utp.repository.RolRepository;
 import com.utp.repository.DocumentoRepository;
+import com.utp.service.Permiso;
+
+import java.time.LocalDate;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -70,6 +73,7 @@ public class DataInitializer implements CommandLineRunner {
         if (cargoAdmin == null) {
             cargoAdmin = new Cargo();
             cargoAdmin.setDescripcion("Administrador de Sistemas");
+            cargoAdmin.setPermisos(Permiso.TODOS);
             cargoRepo.save(cargoAdmin);
             System.out.println("✔ Cargo creado: Administrador de Sistemas");
         }
@@ -91,8 +95,8 @@ public class DataInitializer implements CommandLineRunner {
             personalAdmin.setEmail("admin@system.com");
             personalAdmin.setNroDocumento("00000000");
             personalAdmin.setDocumento(docDni);
-            personalAdmin.setFechaIngreso("2020-01-01");
-            personalAdmin.setFechaNacimiento("1990-01-01");
+            personalAdmin.setFechaIngreso(LocalDate.of(2020, 1, 1));
+            personalAdmin.setFechaNacimiento(LocalDate.of(1990, 1, 1));
             personalAdmin.setCargo(cargoAdmin);
             personalRepo.save(personalAdmin);
             System.out.println("✔ Personal admin creado");
@@ -107,8 +111,8 @@ public class DataInitializer implements CommandLineRunner {
             personalEmpleado.setEmail("empleado@test.com");
             personalEmpleado.setNroDocumento("11111111");
             personalEmpleado.setDocumento(docDni);
-            personalEmpleado.setFechaIngreso("2022-01-01");
-            personalEmpleado.setFechaNacimiento("2000-01-01");
+            personalEmpleado.setFechaIngreso(LocalDate.of(2022, 1, 1));
+            personalEmpleado.setFechaNacimiento(LocalDate.of(2000, 1, 1));
             personalEmpleado.setCargo(cargoEmpleado);
             personalRepo.save(personalEmpleado);
             System.out.println("✔ Personal empleado creado");
@@ -0,0 +1,130 @@
+package com.utp.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * SQLite en modo WAL con dos pools: un escritor de una sola conexión (SQLite
+ * admite un único escritor) y un pool de lectores de solo lectura. Las
+ * transacciones readOnly van a los lectores, así los reportes no frenan las
+ * marcas y las escrituras no esperan un lock que nunca iban a obtener.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${sqlite.journal-mode:WAL}")
+    private String journalMode;
+
+    @Value("${sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${sqlite.cache-size:-20000}")
+    private String cacheSize;
+
+    @Value("${sqlite.mmap-size:268435456}")
+    private String mmapSize;
+
+    @Value("${sqlite.busy-timeout:5000}")
+    private String busyTimeout;
+
+    @Value("${sqlite.lectores:4}")
+    private int lectores;
+
+    // 0 desactiva la medición de sentencias (ver SentenciasLentasDataSource)
+    @Value("${sqlite.lentas.umbral-ms:0}")
+    private long umbralLentasMs;
+
+    @Value("${sqlite.lentas.muestreo:1.0}")
+    private double muestreoLentas;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    /**
+     * El driver de SQLite entra a código nativo dentro de métodos synchronized,
+     * así que con hilos virtuales cada sentencia fija el hilo a su carrier
+     * mientras dura. Los pools limitan esas sentencias a 1 + lectores; si no
+     * quedan carriers libres por encima de eso, un reporte largo frena a todos
+     * los requests.
+     */
+    @PostConstruct
+    void revisarCarriers() {
+        if (!hilosVirtuales) {
+            return;
+        }
+        int conexiones = 1 + lectores;
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        if (carriers <= conexiones) {
+            log.warn("Hilos virtuales con {} carriers y hasta {} sentencias SQLite simultáneas: arranque con "
+                    + "-Djdk.virtualThreadScheduler.parallelism={} o reduzca sqlite.lectores",
+                    carriers, conexiones, conexiones + 1);
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource escrituraDataSource() {
+        HikariConfig config = configBase("sqlite-escritura");
+        config.setMaximumPoolSize(1);
+        // journal_mode queda grabado en el archivo; basta con que lo fije el escritor
+        config.addDataSourceProperty("journal_mode", journalMode);
+        return new HikariDataSource(config);
+    }
+
+    // El escritor abre primero para que el archivo ya esté en WAL
+    @Bean(destroyMethod = "close")
+    @DependsOn("escrituraDataSource")
+    public HikariDataSource lecturaDataSource() {
+        HikariConfig config = configBase("sqlite-lectura");
+        config.setMaximumPoolSize(lectores);
+        config.setReadOnly(true);
+        config.addDataSourceProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * La conexión física se pide recién en la primera sentencia, cuando ya se
+     * sabe si la transacción es de solo lectura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource escrituraDataSource, HikariDataSource lecturaDataSource,
+                                 MeterRegistry registry) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(escrituraDataSource);
+        proxy.setReadOnlyDataSource(lecturaDataSource);
+        if (umbralLentasMs > 0) {
+            return new SentenciasLentasDataSource(proxy, umbralLentasMs, muestreoLentas, registry);
+        }
+        return proxy;
+    }
+
+    private HikariConfig configBase(String nombre) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nombre);
+        config.setJdbcUrl(url);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setMinimumIdle(1);
+        config.addDataSourceProperty("synchronous", synchronous);
+        config.addDataSourceProperty("cache_size", cacheSize);
+        config.addDataSourceProperty("mmap_size", mmapSize);
+        config.addDataSourceProperty("busy_timeout", busyTimeout);
+        return config;
+    }
+}
@@ -0,0 +1,47 @@
+package com.utp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna a cada request un id de correlación: el X-Request-Id que envía el
+ * cliente o el proxy, o uno nuevo. Va en el MDC (idSolicitud), así aparece en
+ * todas las líneas de log del request, y se devuelve en la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdSolicitudFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA = "X-Request-Id";
+    public static final String MDC_CLAVE = "idSolicitud";
+
+    // Lo que venga de afuera termina en los logs: sólo se acepta un id corto y simple
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String id = request.getHeader(CABECERA);
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            id = UUID.randomUUID().toString();
+        }
+        response.setHeader(CABECERA, id);
+        MDC.put(MDC_CLAVE, id);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_CLAVE);
+        }
+    }
+}
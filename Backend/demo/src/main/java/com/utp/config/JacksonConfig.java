@@ -0,0 +1,25 @@
+package com.utp.config;
+
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.utp.model.FechaHoraConverter;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+
+/**
+ * Las fechas con hora viajan como "yyyy-MM-dd HH:mm:ss", el formato que ya
+ * usa la app. Al leer se acepta también la variante ISO con 'T'.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer formatoFechas() {
+        return builder -> builder
+                .serializerByType(LocalDateTime.class, new LocalDateTimeSerializer(FechaHoraConverter.FORMATO))
+                .deserializerByType(LocalDateTime.class, new LocalDateTimeDeserializer(FechaHoraConverter.LECTURA));
+    }
+}
@@ -1,12 +1,16 @@
 package com.utp.config;
 
+import com.utp.service.JwtPrincipal;
 import com.utp.service.JwtService;
+import com.utp.service.Permiso;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,13 +18,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
+    // Una lista de authorities (nombres de Permiso) por máscara, armada una sola vez
+    private final Map<Integer, List<GrantedAuthority>> autoridadesPorMascara = new ConcurrentHashMap<>();
+
     public JwtAuthenticationFilter(JwtService jwtService) {
         this.jwtService = jwtService;
     }
@@ -49,17 +59,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        // ✔ 3. Validar token
-        if (jwtService.validateToken(token)) {
-            String username = jwtService.extractUsername(token);
-            String cargo = jwtService.extractCargo(token).trim();
-
-            List<SimpleGrantedAuthority> authorities =
-                    List.of(new SimpleGrantedAuthority(cargo));
+        // ✔ 3. Validar token (una sola verificación por request)
+        JwtPrincipal principal = parsearToken(token);
+        if (principal != null) {
+            List<GrantedAuthority> authorities = autoridades(principal.permisos());
 
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(
-                            username,
+                            principal,
                             null,
                             authorities
                     );
@@ -74,4 +81,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private List<GrantedAuthority> autoridades(int permisos) {
+        return autoridadesPorMascara.computeIfAbsent(permisos, mascara -> Arrays.stream(Permiso.values())
+                .filter(p -> p.en(mascara))
+                .<GrantedAuthority>map(p -> new SimpleGrantedAuthority(p.name()))
+                .toList());
+    }
+
+    private JwtPrincipal parsearToken(String token) {
+        try {
+            return jwtService.parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -9,6 +9,7 @@ package com.utp.config;
  *
  * @author Thiago
  */
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -17,9 +18,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration 
 public class PasswordConfig {
 
+    // Subir seguridad.bcrypt.costo es seguro: los hashes anteriores se
+    // vuelven a cifrar con el costo nuevo en el siguiente inicio de sesión
     @Bean 
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(@Value("${seguridad.bcrypt.costo:10}") int costo) {
       
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(costo);
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.utp.config;
+
+import com.utp.service.JwtPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica {@link RequierePermiso}. La máscara que exige cada método se resuelve
+ * una vez y queda guardada; por request sólo queda la prueba de bit contra los
+ * permisos del token.
+ */
+@Component
+public class PermisoInterceptor implements HandlerInterceptor {
+
+    // 0: el método no exige permiso
+    private final Map<Method, Integer> requeridos = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod metodo)) {
+            return true;
+        }
+        int requerido = requeridos.computeIfAbsent(metodo.getMethod(), m -> mascara(m, metodo.getBeanType()));
+        if (requerido == 0) {
+            return true;
+        }
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null || !(autenticacion.getPrincipal() instanceof JwtPrincipal principal)
+                || (principal.permisos() & requerido) == 0) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para esta operación");
+        }
+        return true;
+    }
+
+    private static int mascara(Method metodo, Class<?> clase) {
+        RequierePermiso anotacion = AnnotatedElementUtils.findMergedAnnotation(metodo, RequierePermiso.class);
+        if (anotacion == null) {
+            anotacion = AnnotatedElementUtils.findMergedAnnotation(clase, RequierePermiso.class);
+        }
+        return anotacion != null ? anotacion.value().mascara() : 0;
+    }
+}
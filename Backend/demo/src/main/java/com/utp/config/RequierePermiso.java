@@ -0,0 +1,20 @@
+package com.utp.config;
+
+import com.utp.service.Permiso;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpoint que sólo atiende a quien tenga el permiso en su token. En la clase
+ * aplica a todos sus métodos; en un método, reemplaza al de la clase. Lo
+ * verifica PermisoInterceptor antes de invocar al controlador.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequierePermiso {
+
+    Permiso value();
+}
@@ -1,9 +1,16 @@
 package com.utp.config;
 
+import com.utp.service.Permiso;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.context.annotation.Bean;
 import java.util.List;
 
@@ -12,8 +19,13 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    // Red desde la que Prometheus lee /actuator sin token (el JWT expira en una hora)
+    private final IpAddressMatcher redMonitoreo;
+
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          @Value("${monitoreo.red:127.0.0.1/32}") String redMonitoreo) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.redMonitoreo = new IpAddressMatcher(redMonitoreo);
     }
 
     @Bean
@@ -29,10 +41,21 @@ public class SecurityConfig {
                     return config;
                 }))
             .authorizeHttpRequests(auth -> auth
+                // El request original ya se autorizó; el dispatch ASYNC sólo cierra
+                // las respuestas en streaming (export) y no trae el token de nuevo
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Igual el dispatch ERROR: sólo arma el cuerpo del error de un request
+                // ya autorizado; sin esto todo 404/409 llegaba al cliente como 403
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").access(AuthorizationManagers.anyOf(
+                        AuthorityAuthorizationManager.hasAuthority(Permiso.ADMINISTRAR_SISTEMA.name()),
+                        (autenticacion, contexto) ->
+                                new AuthorizationDecision(redMonitoreo.matches(contexto.getRequest()))))
                 .requestMatchers("/api/personal/**", "/api/personal").authenticated()
                 .requestMatchers("/api/usuario/**", "/api/usuario").authenticated()
-                .requestMatchers("/api/documento/**", "/api/documento").hasAuthority("Administrador de Sistemas")
+                .requestMatchers("/api/documento/**", "/api/documento").hasAuthority(Permiso.GESTIONAR_CATALOGOS.name())
                 .requestMatchers("/api/autorizacion/**").authenticated()
                 .requestMatchers("/api/movimiento/**").authenticated()
                 .requestMatchers("/api/asistencia/**").authenticated()
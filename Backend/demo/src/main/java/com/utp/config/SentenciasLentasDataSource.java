@@ -0,0 +1,127 @@
+package com.utp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cada execute* de JPA y JdbcTemplate y registra las sentencias que
+ * superan el umbral. Todas las lentas suman en sqlite.sentencias.lentas; sólo
+ * una fracción ({@code muestreo}) se escribe en el log, para que una base
+ * saturada no llene además el log. Se loguea el SQL, nunca los parámetros.
+ *
+ * En SQLite executeQuery corre el primer paso de la consulta: en agregaciones
+ * y ordenamientos eso es casi todo el trabajo; el recorrido posterior del
+ * ResultSet no se mide.
+ */
+class SentenciasLentasDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger("sqlite.lentas");
+
+    private static final int MAX_SQL = 500;
+
+    private final long umbralNanos;
+    private final double muestreo;
+    private final Counter lentas;
+
+    SentenciasLentasDataSource(DataSource destino, long umbralMs, double muestreo, MeterRegistry registry) {
+        super(destino);
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.muestreo = muestreo;
+        this.lentas = Counter.builder("sqlite.sentencias.lentas")
+                .description("Sentencias que superaron sqlite.lentas.umbral-ms")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    private Connection envolver(Connection conexion) {
+        return proxy(Connection.class, conexion, (metodo, args) -> {
+            Object resultado = invocar(conexion, metodo, args);
+            if (resultado instanceof Statement sentencia) {
+                // prepareStatement/prepareCall reciben el SQL; createStatement lo recibe en execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                Class<? extends Statement> tipo = sentencia instanceof CallableStatement ? CallableStatement.class
+                        : sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return envolver(tipo, sentencia, sql);
+            }
+            return resultado;
+        });
+    }
+
+    private <T extends Statement> T envolver(Class<T> tipo, Statement sentencia, String sqlPreparado) {
+        return proxy(tipo, sentencia, (metodo, args) -> {
+            if (!metodo.getName().startsWith("execute")) {
+                return invocar(sentencia, metodo, args);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocar(sentencia, metodo, args);
+            } finally {
+                long duracion = System.nanoTime() - inicio;
+                if (duracion >= umbralNanos) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String texto
+                            ? texto : sqlPreparado;
+                    registrar(metodo.getName(), sql, duracion);
+                }
+            }
+        });
+    }
+
+    private void registrar(String metodo, String sql, long duracionNanos) {
+        lentas.increment();
+        if (muestreo < 1 && ThreadLocalRandom.current().nextDouble() >= muestreo) {
+            return;
+        }
+        String texto = sql == null ? "?" : sql.replaceAll("\\s+", " ").strip();
+        if (texto.length() > MAX_SQL) {
+            texto = texto.substring(0, MAX_SQL) + "...";
+        }
+        log.warn("Sentencia lenta ({} ms, {}): {}", TimeUnit.NANOSECONDS.toMillis(duracionNanos), metodo, texto);
+    }
+
+    private interface Invocacion {
+        Object invocar(Method metodo, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Object destino, Invocacion invocacion) {
+        return (T) Proxy.newProxyInstance(SentenciasLentasDataSource.class.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Medido[" + destino + "]";
+                    default -> invocacion.invocar(metodo, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.utp.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corre antes de V4, que crea el índice único uk_usuario_usuario. El esquema
+ * original no impedía nombres de usuario repetidos; en una base que los tenga
+ * el índice fallaría y la aplicación no arrancaría. Se conserva el usuario
+ * más antiguo con su nombre y a los demás se les agrega "#id" (el login de
+ * esos usuarios ya fallaba por ambiguo). Cada renombre queda en el log para
+ * que un administrador los corrija.
+ *
+ * Es un callback y no un paso de V4 para no cambiar el checksum de una
+ * migración ya aplicada en otras bases.
+ */
+@Component
+public class UsuariosDuplicadosCallback implements Callback {
+
+    private static final Logger log = LoggerFactory.getLogger(UsuariosDuplicadosCallback.class);
+
+    private static final MigrationVersion INDICE_UNICO = MigrationVersion.fromVersion("4");
+
+    private static final String SQL_DUPLICADOS = """
+            SELECT u.id_usuario, u.usuario FROM usuario u
+            WHERE EXISTS (SELECT 1 FROM usuario o WHERE o.usuario = u.usuario AND o.id_usuario < u.id_usuario)
+            ORDER BY u.id_usuario
+            """;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE
+                && context.getMigrationInfo() != null
+                && INDICE_UNICO.equals(context.getMigrationInfo().getVersion());
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection conexion = context.getConnection();
+        try {
+            List<Object[]> duplicados = new ArrayList<>();
+            try (PreparedStatement ps = conexion.prepareStatement(SQL_DUPLICADOS);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    duplicados.add(new Object[] { rs.getInt("id_usuario"), rs.getString("usuario") });
+                }
+            }
+
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "UPDATE usuario SET usuario = usuario || '#' || id_usuario WHERE id_usuario = ?")) {
+                for (Object[] d : duplicados) {
+                    ps.setInt(1, (Integer) d[0]);
+                    ps.executeUpdate();
+                    log.warn("Usuario {} repetido: el id {} pasa a llamarse \"{}#{}\"", d[1], d[0], d[1], d[0]);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron revisar los usuarios repetidos antes de V4", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "usuarios-duplicados";
+    }
+}
@@ -0,0 +1,99 @@
+package com.utp.config;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+import com.utp.service.VersionesService;
+import com.utp.service.VersionesService.Coleccion;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Avisa a VersionesService de cada alta, modificación o baja hecha con JPA;
+ * Hibernate llama a estos listeners después del commit. Las escrituras por JDBC (marcas en lote)
+ * avisan por su cuenta.
+ */
+@Configuration
+public class VersionesConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final VersionesService versiones;
+
+    public VersionesConfig(EntityManagerFactory entityManagerFactory, VersionesService versiones) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.versiones = versiones;
+    }
+
+    @PostConstruct
+    void registrarListener() {
+        CambiosConfirmados listener = new CambiosConfirmados();
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registro.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registro.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    private void notificar(Object entidad) {
+        if (entidad instanceof Asistencia a) {
+            versiones.cambioConfirmado(Coleccion.ASISTENCIA, a.getPersonal() != null ? a.getPersonal().getIdPersonal() : null);
+        } else if (entidad instanceof Autorizacion a) {
+            versiones.cambioConfirmado(Coleccion.AUTORIZACION,
+                    a.getUsuarioSolicita() != null ? a.getUsuarioSolicita().getIdUsuario() : null);
+        } else if (entidad instanceof Personal) {
+            versiones.cambioConfirmado(Coleccion.PERSONAL, null);
+        } else if (entidad instanceof Usuario) {
+            versiones.cambioConfirmado(Coleccion.USUARIO, null);
+        } else {
+            versiones.cambioConfirmado(Coleccion.CATALOGO, null);
+        }
+    }
+
+    private class CambiosConfirmados implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            notificar(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            notificar(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            notificar(event.getEntity());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.utp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final PermisoInterceptor permisoInterceptor;
+
+    public WebMvcConfig(PermisoInterceptor permisoInterceptor) {
+        this.permisoInterceptor = permisoInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(permisoInterceptor);
+    }
+}
@@ -1,60 +1,182 @@
 package com.utp.controller;
 
+import com.utp.dto.AsistenciaItem;
+import com.utp.dto.PaginaAsistencia;
+import com.utp.dto.ResultadoLote;
 import com.utp.model.Asistencia;
 import com.utp.repository.AsistenciaRepository;
 import com.utp.repository.MovimientoRepository;
-import com.utp.service.JwtService;
-
+import com.utp.repository.Visibilidad;
+import com.utp.service.AsistenciaLoteService;
+import com.utp.service.ColaAsistenciaService;
+import com.utp.service.ExportacionAsistenciaService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
+import com.utp.service.VersionesService;
+import com.utp.service.VersionesService.Coleccion;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/asistencia")
 @CrossOrigin(origins = "*")
 public class AsistenciaController {
 
+    private static final int TAMANIO_PAGINA_DEFECTO = 50;
+    private static final int TAMANIO_PAGINA_MAXIMO = 500;
+    private static final int TAMANIO_LOTE_MAXIMO = 1000;
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
     private final AsistenciaRepository repo;
     private final MovimientoRepository movimientoRepo;
-    private final JwtService jwtService;
-
-    public AsistenciaController(AsistenciaRepository repo, MovimientoRepository movimientoRepo, JwtService jwtService) {
+    private final AsistenciaLoteService loteService;
+    private final ColaAsistenciaService colaAsistencia;
+    private final ExportacionAsistenciaService exportacion;
+    private final VersionesService versiones;
+
+    public AsistenciaController(AsistenciaRepository repo, MovimientoRepository movimientoRepo,
+                                AsistenciaLoteService loteService, ColaAsistenciaService colaAsistencia,
+                                ExportacionAsistenciaService exportacion, VersionesService versiones) {
         this.repo = repo;
         this.movimientoRepo = movimientoRepo;
-        this.jwtService = jwtService;
+        this.loteService = loteService;
+        this.colaAsistencia = colaAsistencia;
+        this.exportacion = exportacion;
+        this.versiones = versiones;
     }
 
     @GetMapping
-    public List<Asistencia> listar(@RequestHeader("Authorization") String auth) {
+    public List<Asistencia> listar(@AuthenticationPrincipal JwtPrincipal principal, WebRequest request) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
+        boolean esAdmin = principal.tiene(Permiso.VER_TODO);
+        Integer idPersonal = principal.idPersonal();
 
-        if (cargo.equals("Administrador de Sistemas")) {
-            return repo.findAll();
+        String etag = versiones.etag(Coleccion.ASISTENCIA, esAdmin ? null : idPersonal,
+                Coleccion.AUTORIZACION, Coleccion.PERSONAL, Coleccion.USUARIO, Coleccion.CATALOGO);
+        if (RespuestaCondicional.noModificado(request, etag)) {
+            return null;
         }
 
-        return repo.findAll().stream()
-                .filter(a -> a.getPersonal().getIdPersonal().equals(userId))
-                .toList();
+        return repo.findAll(Visibilidad.asistencias(principal));
     }
 
-    @PostMapping
-    public Asistencia crear(@RequestBody Asistencia asistencia, @RequestHeader("Authorization") String auth) {
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            if (asistencia.getPersonal() == null || asistencia.getPersonal().getIdPersonal() == null) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta información del personal");
+    /**
+     * Descarga el historial de marcas en CSV o NDJSON. Las filas se escriben a
+     * medida que se leen; con Accept-Encoding gzip la salida va comprimida.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = ExportacionAsistenciaService.CSV) String format,
+                                                          @RequestParam(required = false) String desde,
+                                                          @RequestParam(required = false) String hasta,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion,
+                                                          @AuthenticationPrincipal JwtPrincipal principal) {
+
+        if (!format.equals(ExportacionAsistenciaService.CSV) && !format.equals(ExportacionAsistenciaService.NDJSON)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado, use csv o ndjson");
+        }
+
+        if (!principal.tiene(Permiso.VER_TODO) && principal.idPersonal() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "El usuario no tiene personal asociado");
+        }
+        Integer idPersonal = principal.tiene(Permiso.VER_TODO) ? null : principal.idPersonal();
+        LocalDateTime fechaDesde = (desde != null ? parsearFecha(desde) : FECHA_MINIMA).atStartOfDay();
+        LocalDateTime fechaHasta = (hasta != null ? parsearFecha(hasta).plusDays(1) : FECHA_MAXIMA).atStartOfDay();
+        boolean gzip = aceptaCodificacion != null && aceptaCodificacion.contains("gzip");
+
+        StreamingResponseBody cuerpo = salida -> {
+            if (gzip) {
+                GZIPOutputStream comprimido = new GZIPOutputStream(salida, 8192);
+                exportacion.exportar(format, fechaDesde, fechaHasta, idPersonal, comprimido);
+                comprimido.finish();
+            } else {
+                exportacion.exportar(format, fechaDesde, fechaHasta, idPersonal, salida);
             }
-            if (!asistencia.getPersonal().getIdPersonal().equals(userId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo puedes marcar tu propia asistencia");
+        };
+
+        MediaType tipo = format.equals(ExportacionAsistenciaService.CSV)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType("application/x-ndjson");
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("asistencia." + format).build().toString());
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return respuesta.body(cuerpo);
+    }
+
+    @GetMapping("/pagina")
+    public PaginaAsistencia listarPagina(@RequestParam(required = false) String desde,
+                                         @RequestParam(required = false) String hasta,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer idPersonal,
+                                         @RequestParam(defaultValue = "50") int tamanio,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+
+        if (!principal.tiene(Permiso.VER_TODO)) {
+            if (principal.idPersonal() == null) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "El usuario no tiene personal asociado");
             }
+            idPersonal = principal.idPersonal();
+        }
+
+        LocalDateTime fechaDesde = (desde != null ? parsearFecha(desde) : FECHA_MINIMA).atStartOfDay();
+        LocalDateTime fechaHasta = (hasta != null ? parsearFecha(hasta).plusDays(1) : FECHA_MAXIMA).atStartOfDay();
+        int limite = tamanio > 0 ? Math.min(tamanio, TAMANIO_PAGINA_MAXIMO) : TAMANIO_PAGINA_DEFECTO;
+
+        // Sin cursor se arranca desde el límite superior del rango
+        LocalDateTime cursorFecha = fechaHasta;
+        Integer cursorId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKeyset.Posicion posicion = CursorKeyset.decodificar(cursor);
+            cursorFecha = posicion.fecha();
+            cursorId = posicion.id();
+        }
+
+        // Se pide un registro extra para saber si existe una página siguiente
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<AsistenciaItem> items = idPersonal != null
+                ? repo.buscarPaginaPorPersonal(idPersonal, fechaDesde, fechaHasta, cursorFecha, cursorId, pagina)
+                : repo.buscarPagina(fechaDesde, fechaHasta, cursorFecha, cursorId, pagina);
+
+        String siguienteCursor = null;
+        if (items.size() > limite) {
+            items = items.subList(0, limite);
+            AsistenciaItem ultima = items.get(limite - 1);
+            siguienteCursor = CursorKeyset.codificar(ultima.fecha(), ultima.idAsistencia());
+        }
+
+        return new PaginaAsistencia(items, siguienteCursor);
+    }
+
+    @PostMapping
+    public Asistencia crear(@RequestBody Asistencia asistencia, @AuthenticationPrincipal JwtPrincipal principal) {
+        if (AsistenciaLoteService.sinPersonal(asistencia)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta información del personal");
+        }
+        if (!principal.tiene(Permiso.GESTIONAR_ASISTENCIA)
+                && !principal.esPersonal(asistencia.getPersonal().getIdPersonal())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo puedes marcar tu propia asistencia");
         }
 
         // Cargar el movimiento desde la BD para asegurar persistencia correcta
@@ -64,35 +186,47 @@ public class AsistenciaController {
             asistencia.setMovimiento(movimiento);
         }
 
-        return repo.save(asistencia);
+        // La escritura se agrupa con las marcas concurrentes en una sola transacción
+        return colaAsistencia.registrar(asistencia);
     }
 
-    @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id, @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
+    @PostMapping("/lote")
+    public List<ResultadoLote> crearLote(@RequestBody List<Asistencia> marcas,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
 
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para eliminar asistencias");
+        if (marcas.size() > TAMANIO_LOTE_MAXIMO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El lote admite como máximo " + TAMANIO_LOTE_MAXIMO + " marcas");
         }
 
-        repo.deleteById(id);
+        return loteService.registrarLote(marcas, principal);
+    }
+
+    @DeleteMapping("/{id}")
+    @RequierePermiso(Permiso.GESTIONAR_ASISTENCIA)
+    public void eliminar(@PathVariable Integer id) {
+        loteService.eliminar(List.of(id));
     }
     
     @DeleteMapping("/limpiar-datos-prueba")
-    public String limpiarDatosPrueba(@RequestHeader("Authorization") String auth) {
-        String token = auth.replace("Bearer ", "");
-        Integer userId = jwtService.extractId(token);
-        
+    public String limpiarDatosPrueba(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal.idPersonal() == null) {
+            return "Eliminadas 0 asistencias con movimiento null";
+        }
+
         // Eliminar todas las asistencias con movimiento null del usuario actual
-        var asistencias = repo.findAll().stream()
-                .filter(a -> a.getPersonal().getIdPersonal().equals(userId))
-                .filter(a -> a.getMovimiento() == null)
-                .toList();
+        var asistencias = repo.findByPersonalIdPersonalAndMovimientoIsNull(principal.idPersonal());
         
-        repo.deleteAll(asistencias);
+        int eliminadas = loteService.eliminar(asistencias.stream().map(Asistencia::getIdAsistencia).toList());
         
-        return "Eliminadas " + asistencias.size() + " asistencias con movimiento null";
+        return "Eliminadas " + eliminadas + " asistencias con movimiento null";
+    }
+
+    private LocalDate parsearFecha(String fecha) {
+        try {
+            return LocalDate.parse(fecha);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fecha inválida, use yyyy-MM-dd: " + fecha);
+        }
     }
 }
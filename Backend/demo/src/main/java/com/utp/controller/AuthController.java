@@ -8,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -23,24 +25,8 @@ public class AuthController {
 
  
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Usuario loginRequest) {
-        try {
-            
-            Usuario usuario = usuarioService.obtenerPorUsuario(loginRequest.getUsuario());
-
-            if (usuario == null || !usuarioService.validarLogin(usuario.getUsuario(), loginRequest.getPassword())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
-            }
-
-            
-            String token = jwtService.generateToken(usuario);
-
-            return ResponseEntity.ok(token);
-
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                 .body("Error al procesar la solicitud: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Usuario loginRequest) {
+        return RespuestaLogin.autenticar(usuarioService, jwtService, loginRequest);
     }
 
   
@@ -1,134 +1,175 @@
 package com.utp.controller;
 
+import com.utp.dto.AutorizacionPendiente;
+import com.utp.dto.EventoAutorizacion;
+import com.utp.dto.PaginaAutorizaciones;
+import com.utp.dto.ResultadoResolucion;
 import com.utp.model.Autorizacion;
-import com.utp.model.Usuario;
 import com.utp.repository.AutorizacionRepository;
-import com.utp.repository.UsuarioRepository;
-import com.utp.service.JwtService;
+import com.utp.repository.Visibilidad;
+import com.utp.config.RequierePermiso;
+import com.utp.service.AutorizacionService;
+import com.utp.service.EventosService;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
+import com.utp.service.VersionesService;
+import com.utp.service.VersionesService.Coleccion;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/autorizacion")
 @CrossOrigin(origins = "*")
 public class AutorizacionController {
 
+    private static final int TAMANIO_PAGINA_DEFECTO = 50;
+    private static final int TAMANIO_PAGINA_MAXIMO = 500;
+    private static final int TAMANIO_LOTE_MAXIMO = 1000;
+    // Inicio de la cola: las pendientes sin fecha de solicitud quedaron con esta fecha (V8)
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1, 1, 1, 0, 0);
+
     private final AutorizacionRepository repo;
-    private final UsuarioRepository usuarioRepo;
-    private final JwtService jwtService;
+    private final VersionesService versiones;
+    private final AutorizacionService autorizacionService;
+    private final EventosService eventos;
 
-    public AutorizacionController(AutorizacionRepository repo, UsuarioRepository usuarioRepo, JwtService jwtService) {
+    public AutorizacionController(AutorizacionRepository repo, VersionesService versiones,
+                                  AutorizacionService autorizacionService, EventosService eventos) {
         this.repo = repo;
-        this.usuarioRepo = usuarioRepo;
-        this.jwtService = jwtService;
+        this.versiones = versiones;
+        this.autorizacionService = autorizacionService;
+        this.eventos = eventos;
     }
 
     @GetMapping
-    public List<Autorizacion> listar(@RequestHeader("Authorization") String auth) {
+    public List<Autorizacion> listar(@AuthenticationPrincipal JwtPrincipal principal, WebRequest request) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
+        Integer userId = principal.id();
+        boolean esAdmin = principal.tiene(Permiso.VER_TODO);
 
-        if (cargo.equals("Administrador de Sistemas")) {
-            return repo.findAll();
+        String etag = versiones.etag(Coleccion.AUTORIZACION, esAdmin ? null : userId,
+                Coleccion.PERSONAL, Coleccion.USUARIO, Coleccion.CATALOGO);
+        if (RespuestaCondicional.noModificado(request, etag)) {
+            return null;
         }
 
-        return repo.findAll().stream()
-                .filter(a -> a.getUsuarioSolicita().getIdUsuario().equals(userId))
-                .toList();
+        return repo.findAll(Visibilidad.autorizaciones(principal));
     }
 
-    @PostMapping
-    public Autorizacion crear(@RequestBody Autorizacion a, @RequestHeader("Authorization") String auth) {
+    @GetMapping("/pendientes")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public PaginaAutorizaciones pendientes(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int tamanio) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
+        int limite = tamanio > 0 ? Math.min(tamanio, TAMANIO_PAGINA_MAXIMO) : TAMANIO_PAGINA_DEFECTO;
 
-        if (!cargo.equals("Administrador de Sistemas")) {
-            if (!a.getUsuarioSolicita().getIdUsuario().equals(userId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo puedes crear autorizaciones para ti mismo");
-            }
+        LocalDateTime cursorFecha = FECHA_MINIMA;
+        Integer cursorId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKeyset.Posicion posicion = CursorKeyset.decodificar(cursor);
+            cursorFecha = posicion.fecha();
+            cursorId = posicion.id();
         }
 
-        return repo.save(a);
-    }
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<AutorizacionPendiente> items = repo.buscarPendientes(cursorFecha, cursorId, PageRequest.of(0, limite + 1));
 
-    @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id, @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para eliminar autorizaciones");
+        String siguienteCursor = null;
+        if (items.size() > limite) {
+            items = items.subList(0, limite);
+            AutorizacionPendiente ultima = items.get(limite - 1);
+            siguienteCursor = CursorKeyset.codificar(ultima.fechaSolicitud(), ultima.idAutorizacion());
         }
 
-        repo.deleteById(id);
+        return new PaginaAutorizaciones(items, siguienteCursor, repo.countByEstado(Autorizacion.PENDIENTE));
     }
-    
-    @PutMapping("/{id}/aprobar")
-    public Autorizacion aprobar(@PathVariable Integer id, @RequestHeader("Authorization") String auth) {
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
 
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo el Administrador de Sistemas puede aprobar autorizaciones");
-        }
+    @PostMapping
+    public Autorizacion crear(@RequestBody Autorizacion a, @AuthenticationPrincipal JwtPrincipal principal) {
 
-        Optional<Autorizacion> optionalAutorizacion = repo.findById(id);
-        if (optionalAutorizacion.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Autorización no encontrada");
+        Integer userId = principal.id();
+
+        if (!principal.tiene(Permiso.RESOLVER_AUTORIZACIONES)) {
+            if (a.getUsuarioSolicita() == null || !userId.equals(a.getUsuarioSolicita().getIdUsuario())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo puedes crear autorizaciones para ti mismo");
+            }
+            // Quien no resuelve sólo solicita: aprobar o rechazar pasa por la cola y el CAS
+            a.setEstado(Autorizacion.PENDIENTE);
+            a.setUsuarioAutoriza(null);
+            a.setFechaAprobacion(null);
         }
-        Autorizacion autorizacion = optionalAutorizacion.get();
+        // Con un id existente save() haría merge sobre esa autorización
+        a.setIdAutorizacion(null);
 
-        Optional<Usuario> optionalUserAutoriza = usuarioRepo.findById(userId);
-        if (optionalUserAutoriza.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Usuario que autoriza no encontrado.");
+        // Sin estado ni fecha de solicitud no entraría en la cola de pendientes
+        if (a.getEstado() == null) {
+            a.setEstado(Autorizacion.PENDIENTE);
+        }
+        if (a.getFechaSolicitud() == null) {
+            a.setFechaSolicitud(LocalDateTime.now());
         }
 
-        autorizacion.setEstado("APROBADO");
-        autorizacion.setFechaAprobacion(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-        autorizacion.setUsuarioAutoriza(optionalUserAutoriza.get());
+        Autorizacion guardada = repo.save(a);
+        eventos.autorizaciones(List.of(new EventoAutorizacion(guardada.getIdAutorizacion(),
+                guardada.getUsuarioSolicita() != null ? guardada.getUsuarioSolicita().getIdUsuario() : null,
+                guardada.getEstado(), null, guardada.getFechaSolicitud())));
+        return guardada;
+    }
 
-        return repo.save(autorizacion);
+    @DeleteMapping("/{id}")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public void eliminar(@PathVariable Integer id) {
+        repo.deleteById(id);
+    }
+    
+    @PostMapping("/lote/aprobar")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public ResultadoResolucion aprobarLote(@RequestBody List<Integer> ids,
+                                           @AuthenticationPrincipal JwtPrincipal principal) {
+        validarLote(ids);
+        return autorizacionService.aprobar(ids, principal.id());
     }
 
-    @PutMapping("/{id}/rechazar")
-    public Autorizacion rechazar(@PathVariable Integer id, @RequestHeader("Authorization") String auth) {
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
+    @PostMapping("/lote/rechazar")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public ResultadoResolucion rechazarLote(@RequestBody List<Integer> ids,
+                                            @AuthenticationPrincipal JwtPrincipal principal) {
+        validarLote(ids);
+        return autorizacionService.rechazar(ids, principal.id());
+    }
 
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo el Administrador de Sistemas puede rechazar autorizaciones");
-        }
+    @PutMapping("/{id}/aprobar")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public Autorizacion aprobar(@PathVariable Integer id, @AuthenticationPrincipal JwtPrincipal principal) {
+        autorizacionService.cambiarEstado(id, Autorizacion.APROBADO, principal.id());
+        return obtenerResuelta(id);
+    }
 
-        Optional<Autorizacion> optionalAutorizacion = repo.findById(id);
-        if (optionalAutorizacion.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Autorización no encontrada");
-        }
-        Autorizacion autorizacion = optionalAutorizacion.get();
-        
-        Optional<Usuario> optionalUserAutoriza = usuarioRepo.findById(userId);
-        if (optionalUserAutoriza.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Usuario que autoriza no encontrado.");
-        }
+    @PutMapping("/{id}/rechazar")
+    @RequierePermiso(Permiso.RESOLVER_AUTORIZACIONES)
+    public Autorizacion rechazar(@PathVariable Integer id, @AuthenticationPrincipal JwtPrincipal principal) {
+        autorizacionService.cambiarEstado(id, Autorizacion.RECHAZADO, principal.id());
+        return obtenerResuelta(id);
+    }
 
-        autorizacion.setEstado("RECHAZADO");
-        autorizacion.setFechaAprobacion(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-        autorizacion.setUsuarioAutoriza(optionalUserAutoriza.get());
+    // Se lee después del commit: la transacción de escritura no espera esta consulta
+    private Autorizacion obtenerResuelta(Integer id) {
+        return repo.findByIdAutorizacion(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Autorización no encontrada"));
+    }
 
-        return repo.save(autorizacion);
+    private void validarLote(List<Integer> ids) {
+        if (ids.size() > TAMANIO_LOTE_MAXIMO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El lote admite como máximo " + TAMANIO_LOTE_MAXIMO + " autorizaciones");
+        }
     }
-    
 }
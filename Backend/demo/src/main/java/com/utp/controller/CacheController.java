@@ -0,0 +1,39 @@
+package com.utp.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.utp.dto.EstadisticaCache;
+import com.utp.config.RequierePermiso;
+import com.utp.service.Permiso;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping("/estadisticas")
+    @RequierePermiso(Permiso.ADMINISTRAR_SISTEMA)
+    public List<EstadisticaCache> estadisticas() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new EstadisticaCache(cache.getName(), cache.getNativeCache().estimatedSize(),
+                            stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+                })
+                .toList();
+    }
+}
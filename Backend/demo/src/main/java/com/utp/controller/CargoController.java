@@ -2,12 +2,15 @@ package com.utp.controller;
 
 import com.utp.model.Cargo;
 import com.utp.repository.CargoRepository;
+import com.utp.repository.Visibilidad;
 
-import com.utp.service.JwtService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
 
-import org.springframework.http.HttpStatus;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -17,78 +20,47 @@ import java.util.List;
 public class CargoController {
     
     private final CargoRepository repo;
-    private final JwtService jwtService;
 
-    public CargoController(CargoRepository repo,JwtService jwtService) {
+    public CargoController(CargoRepository repo) {
         this.repo = repo;
-        this.jwtService = jwtService;
        
     }
 
+    // Quien administra catálogos lee de la caché; el resto consulta sólo su cargo
     @GetMapping
-    public List<Cargo> listar(@RequestHeader("Authorization") String auth) {
+    public List<Cargo> listar(@AuthenticationPrincipal JwtPrincipal principal) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-       Integer userId = jwtService.extractId(token);
-       
-        if (cargo.equals("Administrador de Sistemas")) {
+        if (principal.tiene(Permiso.GESTIONAR_CATALOGOS)) {
             return repo.findAll();
         }
 
-        
-       return repo.findAll().stream()
-        .filter(a -> a.getDescripcion().equalsIgnoreCase(cargo))
-        .toList();
+        return repo.findAll(Visibilidad.cargos(principal));
     }
 
     @GetMapping("/{id}")
     public Cargo obtener(@PathVariable Integer id,
-                         @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        Cargo c = repo.findById(id).orElse(null);
+                         @AuthenticationPrincipal JwtPrincipal principal) {
 
-        if (cargo.equals("Administrador de Sistemas")) {
-            return c;
-        }
-        else{
-         return repo.findAll().stream()
-        .filter(a -> a.getDescripcion().equalsIgnoreCase(cargo))
-        .findFirst().orElse(null);
+        if (principal.tiene(Permiso.GESTIONAR_CATALOGOS)) {
+            return repo.findById(id).orElse(null);
         }
+
+        Specification<Cargo> porId = (root, query, cb) -> cb.equal(root.get("idCargo"), id);
+        return repo.findOne(Visibilidad.cargos(principal).and(porId)).orElse(null);
     }
 
     @PostMapping
-    public Cargo crear(@RequestBody Cargo c,
-                       @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "No tienes permisos para crear cargos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public Cargo crear(@RequestBody Cargo c) {
+        // Con un id existente save() haría merge sobre ese cargo y sus permisos
+        c.setIdCargo(null);
         return repo.save(c);
     }
 
     @PutMapping("/{id}")
-    public Cargo actualizar(@PathVariable Integer id, @RequestBody Cargo nuevo,
-                            @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "No tienes permisos para actualizar cargos");
-        }
-
-        return repo.findById(id).map(c -> {
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public Cargo actualizar(@PathVariable Integer id, @RequestBody Cargo nuevo) {
+        return repo.findByIdCargo(id).map(c -> {
             c.setDescripcion(nuevo.getDescripcion());
             c.setEstado(nuevo.getEstado());
             return repo.save(c);
@@ -96,17 +68,8 @@ public class CargoController {
     }
 
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id,
-                         @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "No tienes permisos para eliminar cargos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public void eliminar(@PathVariable Integer id) {
         repo.deleteById(id);
     }
 }
@@ -0,0 +1,38 @@
+package com.utp.controller;
+
+import com.utp.model.FechaHoraConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de los listados paginados por keyset sobre (fecha, id): la
+ * posición de la última fila entregada, en Base64 URL-safe.
+ */
+final class CursorKeyset {
+
+    record Posicion(LocalDateTime fecha, Integer id) {
+    }
+
+    private CursorKeyset() {
+    }
+
+    static String codificar(LocalDateTime fecha, Integer id) {
+        String valor = FechaHoraConverter.aTexto(fecha) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Posicion decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new Posicion(FechaHoraConverter.aFecha(valor.substring(0, separador)),
+                    Integer.valueOf(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
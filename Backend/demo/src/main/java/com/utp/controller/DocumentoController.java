@@ -2,11 +2,10 @@ package com.utp.controller;
 
 import com.utp.model.Documento;
 import com.utp.repository.DocumentoRepository;
-import com.utp.service.JwtService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.Permiso;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -16,11 +15,9 @@ import java.util.List;
 public class DocumentoController {
 
     private final DocumentoRepository repo;
-    private final JwtService jwtService;
 
-    public DocumentoController(DocumentoRepository repo, JwtService jwtService) {
+    public DocumentoController(DocumentoRepository repo) {
         this.repo = repo;
-        this.jwtService = jwtService;
     }
 
     @GetMapping
@@ -29,28 +26,14 @@ public class DocumentoController {
     }
 
     @PostMapping
-    public Documento crear(@RequestBody Documento d, @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para crear documentos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public Documento crear(@RequestBody Documento d) {
         return repo.save(d);
     }
 
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id, @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para eliminar documentos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public void eliminar(@PathVariable Integer id) {
         repo.deleteById(id);
     }
 }
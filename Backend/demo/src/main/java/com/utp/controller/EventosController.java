@@ -0,0 +1,34 @@
+package com.utp.controller;
+
+import com.utp.service.EventosService;
+import com.utp.service.JwtPrincipal;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Stream de eventos en vivo para los tableros: evento "asistencia" por cada
+ * marca confirmada y "autorizacion" por cada solicitud creada o resuelta,
+ * filtrados según los permisos del usuario. Reemplaza el refresco periódico
+ * de los listados; al reconectar, la app vuelve a pedirlos.
+ */
+@RestController
+@RequestMapping("/api/eventos")
+@CrossOrigin(origins = "*")
+public class EventosController {
+
+    private final EventosService eventos;
+
+    public EventosController(EventosService eventos) {
+        this.eventos = eventos;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(@AuthenticationPrincipal JwtPrincipal principal) {
+        return eventos.suscribir(principal);
+    }
+}
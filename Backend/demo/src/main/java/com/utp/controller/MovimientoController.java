@@ -2,7 +2,8 @@ package com.utp.controller;
 
 import com.utp.model.Movimiento;
 import com.utp.repository.MovimientoRepository;
-import com.utp.service.JwtService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.Permiso;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -15,35 +16,19 @@ import java.util.List;
 public class MovimientoController {
 
     private final MovimientoRepository repo;
-    private final JwtService jwtService;
 
-    public MovimientoController(MovimientoRepository repo, JwtService jwtService) {
+    public MovimientoController(MovimientoRepository repo) {
         this.repo = repo;
-        this.jwtService = jwtService;
     }
 
     @GetMapping
-    public List<Movimiento> listar(@RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
+    public List<Movimiento> listar() {
         return repo.findAll();
     }
 
     @PostMapping
-    public Movimiento crear(@RequestBody Movimiento mov,
-            @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!"Administrador de Sistemas".equals(cargo)) {
-            throw new ResponseStatusException(
-                    HttpStatus.FORBIDDEN,
-                    "No tienes permisos para registrar movimientos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public Movimiento crear(@RequestBody Movimiento mov) {
         if (mov.getDescripcion() == null || mov.getDescripcion().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La descripción es obligatoria");
         }
@@ -52,16 +37,8 @@ public class MovimientoController {
     }
 
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id,
-            @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!"Administrador de Sistemas".equals(cargo)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No tienes permisos para eliminar movimientos");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
+    public void eliminar(@PathVariable Integer id) {
         repo.deleteById(id);
     }
 }
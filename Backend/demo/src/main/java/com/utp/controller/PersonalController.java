@@ -1,15 +1,20 @@
 package com.utp.controller;
 
 import com.utp.model.Personal;
-import com.utp.model.Usuario;
 import com.utp.model.Cargo;
 import com.utp.repository.PersonalRepository;
 import com.utp.repository.CargoRepository;
-import com.utp.repository.UsuarioRepository;
-import com.utp.service.JwtService;
+import com.utp.repository.Visibilidad;
+import com.utp.config.RequierePermiso;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
+import com.utp.service.VersionesService;
+import com.utp.service.VersionesService.Coleccion;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -20,106 +25,49 @@ import java.util.List;
 public class PersonalController {
 
     private final PersonalRepository personalRepo;
-    private final UsuarioRepository usuarioRepo;
     private final CargoRepository cargoRepo;
-    private final JwtService jwtService;
+    private final VersionesService versiones;
 
     public PersonalController(PersonalRepository personalRepo,
-                              CargoRepository cargoRepo, UsuarioRepository usuarioRepo,
-                              JwtService jwtService) {
+                              CargoRepository cargoRepo,
+                              VersionesService versiones) {
         this.personalRepo = personalRepo;
         this.cargoRepo = cargoRepo;
-        this.jwtService = jwtService;
-        this.usuarioRepo = usuarioRepo;
+        this.versiones = versiones;
     }
 
-        @GetMapping
-    public List<Personal> listar(@RequestHeader("Authorization") String auth) {
+    @GetMapping
+    public List<Personal> listar(@AuthenticationPrincipal JwtPrincipal principal, WebRequest request) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer idUsuario = jwtService.extractId(token);
+        boolean esAdmin = principal.tiene(Permiso.VER_TODO);
 
-        
-        if (cargo.equals("Administrador de Sistemas")) {
-            return personalRepo.findAll();
-        }
-
-        Usuario usuario = usuarioRepo.findAll().stream()
-                .filter(u -> u.getIdUsuario().equals(idUsuario))
-                .findFirst()
-                .orElse(null);
-
-        if (usuario == null || usuario.getPersonal() == null) {
-            return List.of();
+        String etag = versiones.etag(Coleccion.PERSONAL, esAdmin ? null : principal.idPersonal(),
+                Coleccion.CATALOGO);
+        if (RespuestaCondicional.noModificado(request, etag)) {
+            return null;
         }
-
-        Integer idPersonal = usuario.getPersonal().getIdPersonal();
         
-        return personalRepo.findAll().stream()
-                .filter(per -> per.getIdPersonal().equals(idPersonal))
-                .toList();
+        return personalRepo.findAll(Visibilidad.personal(principal));
     }
 
 
     @GetMapping("/{id}")
     public Personal obtener(@PathVariable Integer id,
-                            @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
-
-        Personal p = personalRepo.findById(id).orElse(null);
-        if (p == null) return null;
-
-       
-        if (cargo.equals("Administrador de Sistemas")) {
-            return p;
-        }
-
-      
-        Usuario usuario = usuarioRepo.findAll().stream()
-                .filter(u -> u.getIdUsuario().equals(userId))
-                .findFirst()
-                .orElse(null);
-
-        if (usuario == null || usuario.getPersonal() == null) {
-            return null;
-        }
+                            @AuthenticationPrincipal JwtPrincipal principal) {
 
-        
-        Integer idPersonal = usuario.getPersonal().getIdPersonal();
-
-      
-        Personal miPersonal = personalRepo.findAll().stream()
-                .filter(per -> per.getIdPersonal().equals(idPersonal))
-                .findFirst()
-                .orElse(null);
-
-       
-        if (miPersonal != null && miPersonal.getIdPersonal().equals(id)) {
-            return miPersonal;
+        if (!principal.tiene(Permiso.VER_TODO) && !principal.esPersonal(id)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Solo puedes ver tus propios datos");
         }
 
-        
-        throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                "Solo puedes ver tus propios datos");
+        return personalRepo.findById(id).orElse(null);
     }
 
 
 
     @PostMapping
-    public Personal crear(@RequestBody Personal p,
-                          @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "No tienes permisos para crear personal");
-        }
+    @RequierePermiso(Permiso.GESTIONAR_PERSONAL)
+    public Personal crear(@RequestBody Personal p) {
 
         if (p.getCargo() != null && p.getCargo().getIdCargo() != null) {
             Cargo cargoObj = cargoRepo.findById(p.getCargo().getIdCargo()).orElse(null);
@@ -131,15 +79,13 @@ public class PersonalController {
 
     @PutMapping("/{id}")
     public Personal actualizar(@PathVariable Integer id, @RequestBody Personal nuevo,
-                               @RequestHeader("Authorization") String auth) {
+                               @AuthenticationPrincipal JwtPrincipal principal) {
 
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer userId = jwtService.extractId(token);
+        boolean gestiona = principal.tiene(Permiso.GESTIONAR_PERSONAL);
 
         return personalRepo.findById(id).map(p -> {
 
-            if (!cargo.equals("Administrador de Sistemas") && !userId.equals(id)) {
+            if (!gestiona && !principal.esPersonal(id)) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN,
                         "Solo puedes actualizar tus propios datos");
             }
@@ -153,7 +99,7 @@ public class PersonalController {
             p.setFechaNacimiento(nuevo.getFechaNacimiento());
             p.setDocumento(nuevo.getDocumento());
 
-            if (cargo.equals("Administrador de Sistemas") && nuevo.getCargo() != null) {
+            if (gestiona && nuevo.getCargo() != null) {
                 Cargo cargoObj = cargoRepo.findById(nuevo.getCargo().getIdCargo()).orElse(null);
                 p.setCargo(cargoObj);
             }
@@ -164,17 +110,8 @@ public class PersonalController {
     }
 
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id,
-                         @RequestHeader("Authorization") String auth) {
-
-        String token = auth.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "No tienes permisos para eliminar personal");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_PERSONAL)
+    public void eliminar(@PathVariable Integer id) {
         personalRepo.deleteById(id);
     }
 }
@@ -0,0 +1,47 @@
+package com.utp.controller;
+
+import com.utp.dto.ResumenAsistencia;
+import com.utp.service.AsistenciaDiariaService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.Permiso;
+import com.utp.service.ReporteService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reportes")
+@CrossOrigin(origins = "*")
+public class ReporteController {
+
+    private final ReporteService service;
+    private final AsistenciaDiariaService asistenciaDiaria;
+
+    public ReporteController(ReporteService service, AsistenciaDiariaService asistenciaDiaria) {
+        this.service = service;
+        this.asistenciaDiaria = asistenciaDiaria;
+    }
+
+    @GetMapping("/resumen")
+    @RequierePermiso(Permiso.VER_REPORTES)
+    public List<ResumenAsistencia> resumen(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        if (hasta != null && hasta.isBefore(desde)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha 'hasta' es anterior a 'desde'");
+        }
+
+        return service.resumen(desde, hasta);
+    }
+
+    // Regenera asistencia_diaria desde cero; devuelve las filas generadas
+    @PostMapping("/asistencia-diaria/reconstruir")
+    @RequierePermiso(Permiso.ADMINISTRAR_SISTEMA)
+    public int reconstruirAsistenciaDiaria() {
+        return asistenciaDiaria.reconstruir();
+    }
+}
@@ -0,0 +1,27 @@
+package com.utp.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * GET condicional de los listados con ETag de VersionesService.
+ */
+final class RespuestaCondicional {
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * Agrega el ETag a la respuesta y devuelve true (status 304 ya asignado) si
+     * coincide con If-None-Match; en ese caso el controlador devuelve null sin
+     * consultar la base. "private, no-cache" reemplaza el no-store que pone
+     * Spring Security para que la app pueda guardar la lista y revalidarla.
+     */
+    static boolean noModificado(WebRequest request, String etag) {
+        if (request instanceof ServletWebRequest servlet && servlet.getResponse() != null) {
+            servlet.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return request.checkNotModified(etag);
+    }
+}
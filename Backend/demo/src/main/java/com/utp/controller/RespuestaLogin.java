@@ -0,0 +1,52 @@
+package com.utp.controller;
+
+import com.utp.model.Usuario;
+import com.utp.service.JwtService;
+import com.utp.service.UsuarioService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Inicio de sesión compartido por /api/auth/login y /api/usuario/login: las
+ * dos rutas responden igual ante credenciales inválidas y ante el pool de
+ * hash saturado.
+ */
+final class RespuestaLogin {
+
+    private RespuestaLogin() {
+    }
+
+    /**
+     * Asíncrono: el hilo de Tomcat queda libre mientras BCrypt corre en el pool
+     * de HashService. Si el pool está lleno responde 503 con Retry-After para
+     * que la app reintente en lugar de dar la sesión por fallida.
+     */
+    static CompletableFuture<ResponseEntity<?>> autenticar(UsuarioService usuarioService, JwtService jwtService,
+                                                          Usuario loginRequest) {
+        try {
+
+            return usuarioService.autenticar(loginRequest.getUsuario(), loginRequest.getPassword())
+                    .<ResponseEntity<?>>thenApply(usuario -> {
+                        if (usuario == null) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
+                        }
+                        return ResponseEntity.ok(jwtService.generateToken(usuario));
+                    })
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error al procesar la solicitud: " + e.getMessage()));
+
+        } catch (ResponseStatusException e) {
+            // Pool de hash saturado
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getStatusCode())
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getReason()));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                 .body("Error al procesar la solicitud: " + e.getMessage()));
+        }
+    }
+}
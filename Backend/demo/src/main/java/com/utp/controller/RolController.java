@@ -2,59 +2,44 @@ package com.utp.controller;
 
 import com.utp.model.Rol;
 import com.utp.repository.RolRepository;
-import com.utp.service.JwtService;
-import org.springframework.http.HttpStatus;
+import com.utp.config.RequierePermiso;
+import com.utp.service.Permiso;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/rol")
+@RequierePermiso(Permiso.GESTIONAR_CATALOGOS)
 @CrossOrigin(origins = "*")
 public class RolController {
 
     private final RolRepository repo;
-    private final JwtService jwtService;
 
-    public RolController(RolRepository repo, JwtService jwtService) {
+    public RolController(RolRepository repo) {
         this.repo = repo;
-        this.jwtService = jwtService;
-    }
-
-    private void validarAdmin(String tokenHeader) {
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No autorizado");
-        }
     }
 
     @GetMapping
-    public List<Rol> listar(@RequestHeader("Authorization") String auth) {
-        validarAdmin(auth);
+    public List<Rol> listar() {
         return repo.findAll();
     }
 
     @GetMapping("/{id}")
-    public Rol obtener(@PathVariable Integer id,
-                       @RequestHeader("Authorization") String auth) {
-        validarAdmin(auth);
+    public Rol obtener(@PathVariable Integer id) {
         return repo.findById(id).orElse(null);
     }
 
     @PostMapping
-    public Rol crear(@RequestBody Rol r,
-                     @RequestHeader("Authorization") String auth) {
-        validarAdmin(auth);
+    public Rol crear(@RequestBody Rol r) {
+        // Con un id existente save() haría merge sobre ese rol y sus permisos
+        r.setIdRol(null);
         return repo.save(r);
     }
 
     @PutMapping("/{id}")
     public Rol actualizar(@PathVariable Integer id,
-                          @RequestBody Rol nuevo,
-                          @RequestHeader("Authorization") String auth) {
-        validarAdmin(auth);
-        return repo.findById(id).map(r -> {
+                          @RequestBody Rol nuevo) {
+        return repo.findByIdRol(id).map(r -> {
             r.setDescripcion(nuevo.getDescripcion());
             r.setEstado(nuevo.getEstado());
             return repo.save(r);
@@ -62,9 +47,7 @@ public class RolController {
     }
 
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id,
-                         @RequestHeader("Authorization") String auth) {
-        validarAdmin(auth);
+    public void eliminar(@PathVariable Integer id) {
         repo.deleteById(id);
     }
 }
@@ -0,0 +1,45 @@
+package com.utp.controller;
+
+import com.utp.dto.CambiosSync;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
+import com.utp.service.SyncService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private static final int LIMITE_DEFECTO = 1000;
+    private static final int LIMITE_MAXIMO = 5000;
+
+    private final SyncService service;
+
+    public SyncController(SyncService service) {
+        this.service = service;
+    }
+
+    /**
+     * Cambios posteriores a {@code since} (0 para la carga inicial). El
+     * administrador recibe todos; el resto sólo los registros propios.
+     */
+    @GetMapping
+    public CambiosSync sincronizar(@RequestParam(defaultValue = "0") long since,
+                                   @RequestParam(defaultValue = "1000") int limite,
+                                   @AuthenticationPrincipal JwtPrincipal principal) {
+
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since no puede ser negativo");
+        }
+
+        Integer idUsuario = principal.tiene(Permiso.VER_TODO) ? null : principal.id();
+        int tamanio = limite > 0 ? Math.min(limite, LIMITE_MAXIMO) : LIMITE_DEFECTO;
+
+        return service.cambiosDesde(since, tamanio, idUsuario);
+    }
+}
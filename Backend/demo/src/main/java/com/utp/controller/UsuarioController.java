@@ -2,13 +2,20 @@ package com.utp.controller;
 
 import com.utp.model.Usuario;
 import com.utp.service.UsuarioService;
+import com.utp.config.RequierePermiso;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
 import com.utp.service.JwtService;
+import com.utp.service.VersionesService;
+import com.utp.service.VersionesService.Coleccion;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/usuario")
@@ -17,20 +24,27 @@ public class UsuarioController {
 
     private final UsuarioService service;
     private final JwtService jwtService;
+    private final VersionesService versiones;
 
-    public UsuarioController(UsuarioService service, JwtService jwtService) {
+    public UsuarioController(UsuarioService service, JwtService jwtService, VersionesService versiones) {
         this.service = service;
         this.jwtService = jwtService;
+        this.versiones = versiones;
     }
    
     @GetMapping
-    public List<Usuario> listar(@RequestHeader("Authorization") String tokenHeader) {
+    public List<Usuario> listar(@AuthenticationPrincipal JwtPrincipal principal, WebRequest request) {
 
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer idUsuarioToken = jwtService.extractId(token);
+        Integer idUsuarioToken = principal.id();
+        boolean esAdmin = principal.tiene(Permiso.VER_TODO);
 
-        if (cargo.equals("Administrador de Sistemas")) {
+        String etag = versiones.etag(Coleccion.USUARIO, esAdmin ? null : idUsuarioToken,
+                Coleccion.PERSONAL, Coleccion.CATALOGO);
+        if (RespuestaCondicional.noModificado(request, etag)) {
+            return null;
+        }
+
+        if (esAdmin) {
             return service.listar();
         }
 
@@ -43,13 +57,11 @@ public class UsuarioController {
  
     @GetMapping("/{id}")
     public Usuario obtener(@PathVariable Integer id,
-                           @RequestHeader("Authorization") String tokenHeader) {
+                           @AuthenticationPrincipal JwtPrincipal principal) {
 
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer idUsuarioToken = jwtService.extractId(token);
+        Integer idUsuarioToken = principal.id();
 
-        if (cargo.equals("Administrador de Sistemas")) {
+        if (principal.tiene(Permiso.VER_TODO)) {
             return service.obtener(id);
         }
 
@@ -60,18 +72,8 @@ public class UsuarioController {
 
    
     @PostMapping
-    public Usuario crear(@RequestBody Usuario u,
-                         @RequestHeader("Authorization") String tokenHeader) {
-
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-         
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "Solo los administradores pueden crear usuarios");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_USUARIOS)
+    public Usuario crear(@RequestBody Usuario u) {
         return service.registrar(u);
     }
 
@@ -79,13 +81,11 @@ public class UsuarioController {
     @PutMapping("/{id}")
     public Usuario actualizar(@PathVariable Integer id,
                               @RequestBody Usuario nuevo,
-                              @RequestHeader("Authorization") String tokenHeader) {
+                              @AuthenticationPrincipal JwtPrincipal principal) {
 
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-        Integer idUsuarioToken = jwtService.extractId(token);
+        Integer idUsuarioToken = principal.id();
 
-        if (cargo.equals("Administrador de Sistemas")) {
+        if (principal.tiene(Permiso.GESTIONAR_USUARIOS)) {
             return service.actualizar(id, nuevo);
         }
 
@@ -101,30 +101,15 @@ public class UsuarioController {
 
   
     @DeleteMapping("/{id}")
-    public void eliminar(@PathVariable Integer id,
-                         @RequestHeader("Authorization") String tokenHeader) {
-
-        String token = tokenHeader.replace("Bearer ", "");
-        String cargo = jwtService.extractCargo(token);
-
-        if (!cargo.equals("Administrador de Sistemas")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "Solo los administradores pueden eliminar usuarios");
-        }
-
+    @RequierePermiso(Permiso.GESTIONAR_USUARIOS)
+    public void eliminar(@PathVariable Integer id) {
         service.eliminar(id);
     }
 
 
    
     @PostMapping("/login")
-    public String login(@RequestBody Usuario u) {
-        Usuario usuario = service.login(u.getUsuario(), u.getPassword());
-        if (usuario != null) {
-            return jwtService.generateToken(usuario);
-        }
-
-        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED,
-                "Credenciales incorrectas");
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Usuario u) {
+        return RespuestaLogin.autenticar(service, jwtService, u);
     }
 }
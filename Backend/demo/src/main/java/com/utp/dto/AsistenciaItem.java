@@ -0,0 +1,21 @@
+package com.utp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana del listado paginado de asistencias: sólo los datos que se
+ * muestran, leídos con una única consulta sin cargar las entidades.
+ */
+public record AsistenciaItem(Integer idAsistencia,
+                             LocalDateTime fecha,
+                             String ipMarcador,
+                             Integer idPersonal,
+                             String nombre,
+                             String apellPaterno,
+                             String apellMaterno,
+                             String nroDocumento,
+                             Integer idMovimiento,
+                             String movimiento,
+                             String abreDesc,
+                             Integer idAutorizacion) {
+}
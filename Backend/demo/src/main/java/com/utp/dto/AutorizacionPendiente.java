@@ -0,0 +1,20 @@
+package com.utp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de la cola de autorizaciones pendientes: lo que se muestra para
+ * decidir, leído con una única consulta sin cargar las entidades.
+ */
+public record AutorizacionPendiente(Integer idAutorizacion,
+                                    LocalDateTime fechaSolicitud,
+                                    String descripcion,
+                                    Integer idUsuario,
+                                    String usuario,
+                                    Integer idPersonal,
+                                    String nombre,
+                                    String apellPaterno,
+                                    String apellMaterno,
+                                    Integer idMovimiento,
+                                    String movimiento) {
+}
@@ -0,0 +1,26 @@
+package com.utp.dto;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /api/sync: registros creados o modificados y lápidas de los
+ * eliminados desde la secuencia pedida. El cliente guarda {@code hasta} y lo
+ * envía como {@code since} en la siguiente llamada; si {@code hayMas} es true
+ * debe volver a llamar enseguida.
+ */
+public record CambiosSync(long hasta,
+                          boolean hayMas,
+                          List<Asistencia> asistencias,
+                          List<Autorizacion> autorizaciones,
+                          List<Personal> personal,
+                          List<Usuario> usuarios,
+                          List<Eliminado> eliminados) {
+
+    public record Eliminado(String entidad, Integer id) {
+    }
+}
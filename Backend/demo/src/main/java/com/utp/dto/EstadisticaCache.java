@@ -0,0 +1,13 @@
+package com.utp.dto;
+
+/**
+ * Contadores de una caché de catálogo desde que arrancó el servidor.
+ * {@code tasaAciertos} va de 0 a 1.
+ */
+public record EstadisticaCache(String nombre,
+                               long entradas,
+                               long aciertos,
+                               long fallos,
+                               double tasaAciertos,
+                               long expulsiones) {
+}
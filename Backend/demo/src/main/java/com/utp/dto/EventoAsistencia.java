@@ -0,0 +1,13 @@
+package com.utp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento "asistencia" de GET /api/eventos: una marca recién confirmada. Lleva
+ * sólo los datos que ya tenía quien la escribió; el detalle se pide aparte.
+ */
+public record EventoAsistencia(Integer idAsistencia,
+                               Integer idPersonal,
+                               Integer idMovimiento,
+                               LocalDateTime fecha) {
+}
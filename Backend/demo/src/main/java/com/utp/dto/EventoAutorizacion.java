@@ -0,0 +1,15 @@
+package com.utp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento "autorizacion" de GET /api/eventos: una solicitud creada (estado
+ * PENDIENTE) o resuelta. {@code fecha} es la de la solicitud o la de la
+ * resolución, según el caso.
+ */
+public record EventoAutorizacion(Integer idAutorizacion,
+                                 Integer idUsuario,
+                                 String estado,
+                                 Integer idUsuarioAutoriza,
+                                 LocalDateTime fecha) {
+}
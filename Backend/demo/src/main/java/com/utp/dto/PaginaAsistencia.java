@@ -0,0 +1,10 @@
+package com.utp.dto;
+
+import java.util.List;
+
+/**
+ * Página de asistencias ordenada de la más reciente a la más antigua.
+ * {@code siguienteCursor} es null cuando no hay más resultados.
+ */
+public record PaginaAsistencia(List<AsistenciaItem> items, String siguienteCursor) {
+}
@@ -0,0 +1,11 @@
+package com.utp.dto;
+
+import java.util.List;
+
+/**
+ * Página de la cola de pendientes, de la solicitud más antigua a la más
+ * reciente. {@code pendientes} es el total en cola al momento de la consulta;
+ * {@code siguienteCursor} es null cuando no hay más resultados.
+ */
+public record PaginaAutorizaciones(List<AutorizacionPendiente> items, String siguienteCursor, long pendientes) {
+}
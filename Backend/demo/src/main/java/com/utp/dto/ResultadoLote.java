@@ -0,0 +1,19 @@
+package com.utp.dto;
+
+/**
+ * Resultado de una marca enviada en POST /api/asistencia/lote. {@code indice}
+ * es la posición de la marca en el arreglo recibido.
+ */
+public record ResultadoLote(int indice, Integer idAsistencia, String estado, String mensaje) {
+
+    public static final String CREADA = "CREADA";
+    public static final String RECHAZADA = "RECHAZADA";
+
+    public static ResultadoLote creada(int indice, Integer idAsistencia) {
+        return new ResultadoLote(indice, idAsistencia, CREADA, null);
+    }
+
+    public static ResultadoLote rechazada(int indice, String mensaje) {
+        return new ResultadoLote(indice, null, RECHAZADA, mensaje);
+    }
+}
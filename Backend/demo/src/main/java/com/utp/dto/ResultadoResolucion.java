@@ -0,0 +1,11 @@
+package com.utp.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de POST /api/autorizacion/lote/aprobar|rechazar. {@code resueltas}
+ * son las que pasaron a {@code estado}; {@code omitidas}, las que no existen o
+ * ya no estaban pendientes.
+ */
+public record ResultadoResolucion(String estado, List<Integer> resueltas, List<Integer> omitidas) {
+}
@@ -0,0 +1,16 @@
+package com.utp.dto;
+
+/**
+ * Fila del reporte de planilla por personal: mismas columnas que el CSV que
+ * exporta la app (Nombre, Documento, Asistencias, Demoras, Faltas, Descuento,
+ * UltimaMarca).
+ */
+public record ResumenAsistencia(Integer idPersonal,
+                                String nombre,
+                                String documento,
+                                int asistencias,
+                                int demoras,
+                                int faltas,
+                                double descuento,
+                                String ultimaMarca) {
+}
@@ -0,0 +1,20 @@
+package com.utp.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de la consulta agrupada del resumen: un registro por personal y día
+ * con marcas. Los campos del día son null cuando el personal no marcó en el
+ * periodo. tardanza indica que la primera entrada del día (o la primera
+ * marca si no hubo entrada) fue posterior a las 08:15.
+ */
+public record ResumenDia(Integer idPersonal,
+                         String nombre,
+                         String apellPaterno,
+                         String apellMaterno,
+                         String nroDocumento,
+                         LocalDate fechaCreacion,
+                         LocalDate dia,
+                         boolean tardanza,
+                         String ultimaMarca) {
+}
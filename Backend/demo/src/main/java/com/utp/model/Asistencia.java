@@ -13,11 +13,32 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "asistencia")
 @Data
+@NamedEntityGraph(name = Asistencia.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode(value = "personal", subgraph = "personal"),
+                @NamedAttributeNode("movimiento"),
+                @NamedAttributeNode(value = "autorizacion", subgraph = "autorizacion")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "personal", attributeNodes = {
+                        @NamedAttributeNode("cargo"), @NamedAttributeNode("documento") }),
+                @NamedSubgraph(name = "autorizacion", attributeNodes = {
+                        @NamedAttributeNode("movimiento"),
+                        @NamedAttributeNode(value = "usuarioSolicita", subgraph = "usuario"),
+                        @NamedAttributeNode(value = "usuarioAutoriza", subgraph = "usuario") }),
+                @NamedSubgraph(name = "usuario", attributeNodes = {
+                        @NamedAttributeNode("rol"), @NamedAttributeNode(value = "personal", subgraph = "personal") })
+        })
 public class Asistencia {
 
+    // Todas las relaciones son EAGER; este grafo las trae en el mismo SELECT
+    public static final String GRAFO_COMPLETO = "Asistencia.completa";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_asistencia")
@@ -32,7 +53,7 @@ public class Asistencia {
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private Movimiento movimiento;
 
-    private String fecha;
+    private LocalDateTime fecha;
 
     @Column(name = "ip_marcador")
     private String ipMarcador;
@@ -7,6 +7,8 @@ package com.utp.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+
+import java.time.LocalDateTime;
 /**
  *
  * @author Thiago
@@ -14,8 +16,27 @@ import lombok.Data;
 @Entity
 @Table(name = "autorizacion")
 @Data
+@NamedEntityGraph(name = Autorizacion.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("movimiento"),
+                @NamedAttributeNode(value = "usuarioSolicita", subgraph = "usuario"),
+                @NamedAttributeNode(value = "usuarioAutoriza", subgraph = "usuario")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "usuario", attributeNodes = {
+                        @NamedAttributeNode("rol"), @NamedAttributeNode(value = "personal", subgraph = "personal") }),
+                @NamedSubgraph(name = "personal", attributeNodes = {
+                        @NamedAttributeNode("cargo"), @NamedAttributeNode("documento") })
+        })
 public class Autorizacion {
 
+    // Todas las relaciones son EAGER; este grafo las trae en el mismo SELECT
+    public static final String GRAFO_COMPLETO = "Autorizacion.completa";
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String APROBADO = "APROBADO";
+    public static final String RECHAZADO = "RECHAZADO";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_autorizacion")
@@ -36,10 +57,10 @@ public class Autorizacion {
     private String descripcion;
 
     @Column(name = "fecha_solicitud")
-    private String fechaSolicitud;
+    private LocalDateTime fechaSolicitud;
 
     @Column(name = "fecha_aprobacion")
-    private String fechaAprobacion;
+    private LocalDateTime fechaAprobacion;
 
     private String estado;
 }
@@ -1,5 +1,6 @@
 package com.utp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -15,4 +16,9 @@ public class Cargo {
     private String descripcion;
 
     private String estado = "ACTIVO";
+
+    // Máscara de Permiso; se asigna por migración o SQL, la API no la expone ni la cambia
+    @JsonIgnore
+    @Column(updatable = false)
+    private int permisos;
 }
@@ -0,0 +1,23 @@
+package com.utp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDate;
+
+/**
+ * Guarda los LocalDate como texto ISO "yyyy-MM-dd".
+ */
+@Converter(autoApply = true)
+public class FechaConverter implements AttributeConverter<LocalDate, String> {
+
+    @Override
+    public String convertToDatabaseColumn(LocalDate fecha) {
+        return fecha == null ? null : fecha.toString();
+    }
+
+    @Override
+    public LocalDate convertToEntityAttribute(String texto) {
+        return texto == null ? null : LocalDate.parse(texto);
+    }
+}
@@ -0,0 +1,45 @@
+package com.utp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Guarda los LocalDateTime como texto "yyyy-MM-dd HH:mm:ss": ordena igual que
+ * la fecha, así los rangos sobre la columna pueden usar índice.
+ */
+@Converter(autoApply = true)
+public class FechaHoraConverter implements AttributeConverter<LocalDateTime, String> {
+
+    public static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Acepta "yyyy-MM-dd HH:mm[:ss[.fff]]" y el mismo valor con 'T' (ISO)
+    public static final DateTimeFormatter LECTURA = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .toFormatter();
+
+    public static String aTexto(LocalDateTime fecha) {
+        return fecha == null ? null : fecha.truncatedTo(ChronoUnit.SECONDS).format(FORMATO);
+    }
+
+    public static LocalDateTime aFecha(String texto) {
+        return texto == null ? null : LocalDateTime.parse(texto, LECTURA);
+    }
+
+    @Override
+    public String convertToDatabaseColumn(LocalDateTime fecha) {
+        return aTexto(fecha);
+    }
+
+    @Override
+    public LocalDateTime convertToEntityAttribute(String texto) {
+        return aFecha(texto);
+    }
+}
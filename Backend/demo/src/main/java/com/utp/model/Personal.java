@@ -25,7 +25,7 @@ public class Personal {
     private String apellPaterno;
     private String apellMaterno;
     private String nroDocumento;
-    private  String  fechaNacimiento;
-    private  String  fechaIngreso;
+    private  LocalDate  fechaNacimiento;
+    private  LocalDate  fechaIngreso;
     private String email;
 }
@@ -5,6 +5,7 @@
 
 package com.utp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -26,4 +27,9 @@ public class Rol {
 
 
     private String estado;
+
+    // Máscara de Permiso; se asigna por migración o SQL, la API no la expone ni la cambia
+    @JsonIgnore
+    @Column(updatable = false)
+    private int permisos;
 }
\ No newline at end of file
@@ -27,5 +27,5 @@ public class Usuario {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String estado = "ACTIVO";
-    private String fechaCreacion = LocalDate.now().toString();
+    private LocalDate fechaCreacion = LocalDate.now();
 }
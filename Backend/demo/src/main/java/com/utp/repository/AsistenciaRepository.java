@@ -1,7 +1,63 @@
 package com.utp.repository;
 
+import com.utp.dto.AsistenciaItem;
 import com.utp.model.Asistencia;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface AsistenciaRepository extends JpaRepository<Asistencia, Integer> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AsistenciaRepository extends JpaRepository<Asistencia, Integer>, JpaSpecificationExecutor<Asistencia> {
+
+    // Los listados cargan la asistencia con todas sus relaciones en un solo SELECT
+    @Override
+    @EntityGraph(Asistencia.GRAFO_COMPLETO)
+    List<Asistencia> findAll();
+
+    // Listado filtrado por Visibilidad
+    @Override
+    @EntityGraph(Asistencia.GRAFO_COMPLETO)
+    List<Asistencia> findAll(Specification<Asistencia> spec);
+
+    List<Asistencia> findByPersonalIdPersonalAndMovimientoIsNull(Integer idPersonal);
+
+    @EntityGraph(Asistencia.GRAFO_COMPLETO)
+    List<Asistencia> findByIdAsistenciaIn(Collection<Integer> ids);
+
+    // Paginación por keyset sobre (fecha, id_asistencia): usa idx_asistencia_personal_fecha.
+    // Devuelve filas planas, sin entidades ni relaciones.
+    @Query("SELECT new com.utp.dto.AsistenciaItem(a.idAsistencia, a.fecha, a.ipMarcador, "
+            + "p.idPersonal, p.nombre, p.apellPaterno, p.apellMaterno, p.nroDocumento, "
+            + "m.idMovimiento, m.descripcion, m.abreDesc, au.idAutorizacion) "
+            + "FROM Asistencia a JOIN a.personal p LEFT JOIN a.movimiento m LEFT JOIN a.autorizacion au "
+            + "WHERE p.idPersonal = :idPersonal "
+            + "AND a.fecha >= :desde AND a.fecha < :hasta "
+            + "AND (a.fecha < :cursorFecha OR (a.fecha = :cursorFecha AND a.idAsistencia < :cursorId)) "
+            + "ORDER BY a.fecha DESC, a.idAsistencia DESC")
+    List<AsistenciaItem> buscarPaginaPorPersonal(@Param("idPersonal") Integer idPersonal,
+                                                 @Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta,
+                                                 @Param("cursorFecha") LocalDateTime cursorFecha,
+                                                 @Param("cursorId") Integer cursorId,
+                                                 Pageable pageable);
+
+    @Query("SELECT new com.utp.dto.AsistenciaItem(a.idAsistencia, a.fecha, a.ipMarcador, "
+            + "p.idPersonal, p.nombre, p.apellPaterno, p.apellMaterno, p.nroDocumento, "
+            + "m.idMovimiento, m.descripcion, m.abreDesc, au.idAutorizacion) "
+            + "FROM Asistencia a LEFT JOIN a.personal p LEFT JOIN a.movimiento m LEFT JOIN a.autorizacion au "
+            + "WHERE a.fecha >= :desde AND a.fecha < :hasta "
+            + "AND (a.fecha < :cursorFecha OR (a.fecha = :cursorFecha AND a.idAsistencia < :cursorId)) "
+            + "ORDER BY a.fecha DESC, a.idAsistencia DESC")
+    List<AsistenciaItem> buscarPagina(@Param("desde") LocalDateTime desde,
+                                      @Param("hasta") LocalDateTime hasta,
+                                      @Param("cursorFecha") LocalDateTime cursorFecha,
+                                      @Param("cursorId") Integer cursorId,
+                                      Pageable pageable);
 }
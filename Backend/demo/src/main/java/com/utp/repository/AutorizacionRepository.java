@@ -1,7 +1,42 @@
 package com.utp.repository;
 
+import com.utp.dto.AutorizacionPendiente;
 import com.utp.model.Autorizacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface AutorizacionRepository extends JpaRepository<Autorizacion, Integer> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AutorizacionRepository extends JpaRepository<Autorizacion, Integer>, JpaSpecificationExecutor<Autorizacion> {
+
+    // Listado filtrado por Visibilidad, con sus relaciones en el mismo SELECT
+    @Override
+    @EntityGraph(Autorizacion.GRAFO_COMPLETO)
+    List<Autorizacion> findAll(Specification<Autorizacion> spec);
+
+    @EntityGraph(Autorizacion.GRAFO_COMPLETO)
+    Optional<Autorizacion> findByIdAutorizacion(Integer idAutorizacion);
+
+    long countByEstado(String estado);
+
+    // Cola de pendientes por keyset sobre (fecha_solicitud, id_autorizacion):
+    // usa idx_autorizacion_estado_fecha. Devuelve filas planas, sin entidades.
+    @Query("SELECT new com.utp.dto.AutorizacionPendiente(a.idAutorizacion, a.fechaSolicitud, a.descripcion, "
+            + "u.idUsuario, u.usuario, p.idPersonal, p.nombre, p.apellPaterno, p.apellMaterno, "
+            + "m.idMovimiento, m.descripcion) "
+            + "FROM Autorizacion a LEFT JOIN a.usuarioSolicita u LEFT JOIN u.personal p LEFT JOIN a.movimiento m "
+            + "WHERE a.estado = '" + Autorizacion.PENDIENTE + "' "
+            + "AND (a.fechaSolicitud > :cursorFecha "
+            + "OR (a.fechaSolicitud = :cursorFecha AND a.idAutorizacion > :cursorId)) "
+            + "ORDER BY a.fechaSolicitud, a.idAutorizacion")
+    List<AutorizacionPendiente> buscarPendientes(@Param("cursorFecha") LocalDateTime cursorFecha,
+                                                 @Param("cursorId") Integer cursorId,
+                                                 Pageable pageable);
 }
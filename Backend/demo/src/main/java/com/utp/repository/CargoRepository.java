@@ -9,10 +9,37 @@ package com.utp.repository;
  *
  * @author Thiago
  */
+import com.utp.config.CacheConfig;
 import com.utp.model.Cargo;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CargoRepository extends JpaRepository<Cargo, Integer>, JpaSpecificationExecutor<Cargo> {
+
+    @Override
+    @Cacheable(CacheConfig.CARGOS)
+    List<Cargo> findAll();
+
+    @Override
+    @Cacheable(CacheConfig.CARGOS)
+    Optional<Cargo> findById(Integer id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CARGOS, allEntries = true)
+    <S extends Cargo> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CARGOS, allEntries = true)
+    void deleteById(Integer id);
 
-public interface CargoRepository extends JpaRepository<Cargo, Integer> {
     Cargo findByDescripcion(String descripcion);
 
+    // Sin caché: instancia propia para quien la modifica (ver CacheConfig)
+    Optional<Cargo> findByIdCargo(Integer idCargo);
+
 }
\ No newline at end of file
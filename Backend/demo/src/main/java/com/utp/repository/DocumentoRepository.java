@@ -5,10 +5,33 @@
 
 package com.utp.repository;
 
+import com.utp.config.CacheConfig;
 import com.utp.model.Documento;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface DocumentoRepository extends JpaRepository<Documento, Integer> {
+
+    @Override
+    @Cacheable(CacheConfig.DOCUMENTOS)
+    List<Documento> findAll();
+
+    @Override
+    @Cacheable(CacheConfig.DOCUMENTOS)
+    Optional<Documento> findById(Integer id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DOCUMENTOS, allEntries = true)
+    <S extends Documento> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.DOCUMENTOS, allEntries = true)
+    void deleteById(Integer id);
+
     Documento findByDescripcion(String descripcion);
 }
 
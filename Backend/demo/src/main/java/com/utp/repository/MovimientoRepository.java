@@ -1,7 +1,29 @@
 package com.utp.repository;
 
+import com.utp.config.CacheConfig;
 import com.utp.model.Movimiento;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface MovimientoRepository extends JpaRepository<Movimiento, Integer> {
+
+    @Override
+    @Cacheable(CacheConfig.MOVIMIENTOS)
+    List<Movimiento> findAll();
+
+    @Override
+    @Cacheable(CacheConfig.MOVIMIENTOS)
+    Optional<Movimiento> findById(Integer id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIMIENTOS, allEntries = true)
+    <S extends Movimiento> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIMIENTOS, allEntries = true)
+    void deleteById(Integer id);
 }
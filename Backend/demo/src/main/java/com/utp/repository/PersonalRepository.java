@@ -5,10 +5,20 @@
 
 package com.utp.repository;
 
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import com.utp.model.Personal;
 
-public interface PersonalRepository extends JpaRepository<Personal, Integer> {
+import java.util.List;
+
+public interface PersonalRepository extends JpaRepository<Personal, Integer>, JpaSpecificationExecutor<Personal> {
     Personal findByEmail(String email);
 
+    // Listado filtrado por Visibilidad, con cargo y documento en el mismo SELECT
+    @Override
+    @EntityGraph(attributePaths = { "cargo", "documento" })
+    List<Personal> findAll(Specification<Personal> spec);
+
 }
@@ -5,9 +5,35 @@
 
 package com.utp.repository;
 
+import com.utp.config.CacheConfig;
 import com.utp.model.Rol;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface RolRepository extends JpaRepository<Rol, Integer> {
+
+    @Override
+    @Cacheable(CacheConfig.ROLES)
+    List<Rol> findAll();
+
+    @Override
+    @Cacheable(CacheConfig.ROLES)
+    Optional<Rol> findById(Integer id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ROLES, allEntries = true)
+    <S extends Rol> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ROLES, allEntries = true)
+    void deleteById(Integer id);
+
     Rol findByDescripcion(String descripcion);
+
+    // Sin caché: instancia propia para quien la modifica (ver CacheConfig)
+    Optional<Rol> findByIdRol(Integer idRol);
 }
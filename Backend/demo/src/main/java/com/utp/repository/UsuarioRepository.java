@@ -2,7 +2,17 @@ package com.utp.repository;
 
 import com.utp.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     Usuario findByUsuario(String usuario);
+
+    // Reemplaza el hash sólo si sigue siendo el que se verificó
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.password = :nuevo WHERE u.idUsuario = :id AND u.password = :anterior")
+    int actualizarPassword(@Param("id") Integer id, @Param("anterior") String anterior, @Param("nuevo") String nuevo);
 }
@@ -0,0 +1,72 @@
+package com.utp.repository;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Cargo;
+import com.utp.model.Personal;
+import com.utp.service.JwtPrincipal;
+import com.utp.service.Permiso;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filas que cada usuario puede ver, como Specification: el predicado va en el
+ * WHERE del SELECT, así un listado de quien no tiene VER_TODO lee sólo sus
+ * filas (por índice) en vez de traer la tabla y filtrarla en memoria. Sin
+ * restricción para quien tiene el permiso; ninguna fila si al usuario le falta
+ * el dato que lo identifica como dueño.
+ */
+public final class Visibilidad {
+
+    private Visibilidad() {
+    }
+
+    public static Specification<Asistencia> asistencias(JwtPrincipal principal) {
+        if (principal.tiene(Permiso.VER_TODO)) {
+            return todas();
+        }
+        return igual(principal.idPersonal(), "personal", "idPersonal");
+    }
+
+    public static Specification<Autorizacion> autorizaciones(JwtPrincipal principal) {
+        if (principal.tiene(Permiso.VER_TODO)) {
+            return todas();
+        }
+        return igual(principal.id(), "usuarioSolicita", "idUsuario");
+    }
+
+    public static Specification<Personal> personal(JwtPrincipal principal) {
+        if (principal.tiene(Permiso.VER_TODO)) {
+            return todas();
+        }
+        return igual(principal.idPersonal(), "idPersonal");
+    }
+
+    // Los catálogos de cargos los ve completos quien los administra; el resto, sólo el propio
+    public static Specification<Cargo> cargos(JwtPrincipal principal) {
+        if (principal.tiene(Permiso.GESTIONAR_CATALOGOS)) {
+            return todas();
+        }
+        String cargo = principal.cargo();
+        return (root, query, cb) -> cargo == null || cargo.isEmpty()
+                ? cb.disjunction()
+                : cb.equal(cb.lower(root.get("descripcion")), cargo.toLowerCase());
+    }
+
+    private static <T> Specification<T> todas() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    private static <T> Specification<T> igual(Integer valor, String... ruta) {
+        return (root, query, cb) -> {
+            if (valor == null) {
+                return cb.disjunction();
+            }
+            Path<Object> campo = root.get(ruta[0]);
+            for (int i = 1; i < ruta.length; i++) {
+                campo = campo.get(ruta[i]);
+            }
+            return cb.equal(campo, valor);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.utp.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mantiene asistencia_diaria: una fila por personal y día con primera entrada,
+ * última salida, cantidad de marcas, minutos trabajados y tardanza. Cada alta
+ * o baja de marcas recalcula sólo los días que tocó, dentro de su transacción.
+ */
+@Service
+public class AsistenciaDiariaService {
+
+    // Primera entrada posterior a las 08:15 cuenta como tardanza
+    public static final int LIMITE_TARDANZA_MINUTOS = 8 * 60 + 15;
+
+    private static final String SQL_RECALCULAR = """
+            INSERT INTO asistencia_diaria (id_personal, fecha, primera_entrada, ultima_salida, primera_marca,
+                                           ultima_marca, marcas, minutos_trabajados, tardanza)
+            SELECT id_personal, dia, primera_entrada, ultima_salida, primera_marca, ultima_marca, marcas,
+                   CASE WHEN ultima_salida > primera_entrada
+                        THEN CAST(round((julianday(ultima_salida) - julianday(primera_entrada)) * 1440) AS INTEGER) END,
+                   CAST(substr(COALESCE(primera_entrada, primera_marca), 12, 2) AS INTEGER) * 60
+                       + CAST(substr(COALESCE(primera_entrada, primera_marca), 15, 2) AS INTEGER) > ?
+            FROM (SELECT a.id_personal, substr(a.fecha, 1, 10) AS dia,
+                         MIN(CASE WHEN lower(m.descripcion) LIKE '%%entrada%%' OR upper(m.abre_desc) = 'ENT'
+                                  THEN a.fecha END) AS primera_entrada,
+                         MAX(CASE WHEN lower(m.descripcion) LIKE '%%salida%%' OR upper(m.abre_desc) = 'SAL'
+                                  THEN a.fecha END) AS ultima_salida,
+                         MIN(a.fecha) AS primera_marca,
+                         MAX(a.fecha) AS ultima_marca,
+                         COUNT(*) AS marcas
+                  FROM asistencia a
+                  LEFT JOIN movimiento m ON m.id_movimiento = a.id_movimiento
+                  WHERE a.id_personal IS NOT NULL AND a.fecha IS NOT NULL %s
+                  GROUP BY a.id_personal, substr(a.fecha, 1, 10))
+            """;
+
+    private static final String SQL_RECALCULAR_DIA =
+            SQL_RECALCULAR.formatted("AND a.id_personal = ? AND a.fecha >= ? AND a.fecha < ?");
+
+    private static final String SQL_RECALCULAR_TODO = SQL_RECALCULAR.formatted("");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Día de un personal cuyas marcas cambiaron.
+     */
+    public record Dia(Integer idPersonal, LocalDate fecha) {
+    }
+
+    public AsistenciaDiariaService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recalcula los días indicados a partir de sus marcas; si un día se quedó
+     * sin marcas su fila desaparece. Debe llamarse dentro de la transacción
+     * que modificó asistencia.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void actualizar(Collection<Dia> dias) {
+        if (dias.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> borrar = new ArrayList<>(dias.size());
+        List<Object[]> recalcular = new ArrayList<>(dias.size());
+        for (Dia dia : dias) {
+            borrar.add(new Object[] { dia.idPersonal(), dia.fecha().toString() });
+            recalcular.add(new Object[] { LIMITE_TARDANZA_MINUTOS, dia.idPersonal(),
+                    dia.fecha().toString(), dia.fecha().plusDays(1).toString() });
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM asistencia_diaria WHERE id_personal = ? AND fecha = ?", borrar);
+        jdbcTemplate.batchUpdate(SQL_RECALCULAR_DIA, recalcular);
+    }
+
+    /**
+     * Vuelve a generar la tabla completa desde asistencia. Devuelve las filas creadas.
+     */
+    @Transactional
+    public int reconstruir() {
+        jdbcTemplate.update("DELETE FROM asistencia_diaria");
+        return jdbcTemplate.update(SQL_RECALCULAR_TODO, LIMITE_TARDANZA_MINUTOS);
+    }
+}
@@ -0,0 +1,190 @@
+package com.utp.service;
+
+import com.utp.dto.EventoAsistencia;
+import com.utp.dto.ResultadoLote;
+import com.utp.model.Asistencia;
+import com.utp.model.FechaHoraConverter;
+import com.utp.model.Movimiento;
+import com.utp.repository.MovimientoRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registro de marcas en bloque. Las filas válidas se insertan con un solo
+ * batch JDBC dentro de una transacción, en lugar de un save (y una
+ * transacción de escritura en SQLite) por marca.
+ */
+@Service
+public class AsistenciaLoteService {
+
+    private static final String SQL_INSERTAR = "INSERT INTO asistencia "
+            + "(id_personal, id_movimiento, fecha, ip_marcador, id_autorizacion) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovimientoRepository movimientoRepo;
+    private final AsistenciaDiariaService asistenciaDiaria;
+    private final VersionesService versiones;
+    private final EventosService eventos;
+
+    public AsistenciaLoteService(JdbcTemplate jdbcTemplate, MovimientoRepository movimientoRepo,
+                                 AsistenciaDiariaService asistenciaDiaria, VersionesService versiones,
+                                 EventosService eventos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movimientoRepo = movimientoRepo;
+        this.asistenciaDiaria = asistenciaDiaria;
+        this.versiones = versiones;
+        this.eventos = eventos;
+    }
+
+    @Transactional
+    public List<ResultadoLote> registrarLote(List<Asistencia> marcas, JwtPrincipal principal) {
+        boolean esAdmin = principal.tiene(Permiso.GESTIONAR_ASISTENCIA);
+
+        // Los movimientos se leen una vez por lote, no una vez por marca
+        Map<Integer, Movimiento> movimientos = movimientoRepo.findAll().stream()
+                .collect(Collectors.toMap(Movimiento::getIdMovimiento, Function.identity()));
+
+        List<ResultadoLote> resultados = new ArrayList<>(marcas.size());
+        List<Asistencia> validas = new ArrayList<>(marcas.size());
+        List<Integer> indicesValidos = new ArrayList<>(marcas.size());
+
+        for (int i = 0; i < marcas.size(); i++) {
+            Asistencia a = marcas.get(i);
+            String error = validar(a, esAdmin, principal.idPersonal(), movimientos);
+            if (error != null) {
+                resultados.add(ResultadoLote.rechazada(i, error));
+                continue;
+            }
+            if (a.getMovimiento() != null && a.getMovimiento().getIdMovimiento() != null) {
+                a.setMovimiento(movimientos.get(a.getMovimiento().getIdMovimiento()));
+            }
+            validas.add(a);
+            indicesValidos.add(i);
+            resultados.add(null);
+        }
+
+        insertar(validas);
+
+        for (int i = 0; i < validas.size(); i++) {
+            int indice = indicesValidos.get(i);
+            resultados.set(indice, ResultadoLote.creada(indice, validas.get(i).getIdAsistencia()));
+        }
+        return resultados;
+    }
+
+    /**
+     * Inserta las marcas con un batch JDBC, asigna a cada una su id y actualiza
+     * asistencia_diaria en la misma transacción. Como no pasa por Hibernate,
+     * avisa el cambio a VersionesService; al confirmar, publica las marcas en
+     * EventosService.
+     */
+    @Transactional
+    public void insertar(List<Asistencia> asistencias) {
+        if (asistencias.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> filas = new ArrayList<>(asistencias.size());
+        for (Asistencia a : asistencias) {
+            filas.add(new Object[] {
+                    a.getPersonal().getIdPersonal(),
+                    a.getMovimiento() != null ? a.getMovimiento().getIdMovimiento() : null,
+                    FechaHoraConverter.aTexto(a.getFecha()),
+                    a.getIpMarcador(),
+                    a.getAutorizacion() != null ? a.getAutorizacion().getIdAutorizacion() : null
+            });
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, filas);
+
+        // IDENTITY impide el batch en Hibernate; aquí los ids se derivan del último
+        // rowid: SQLite los asigna consecutivos mientras la transacción tiene el
+        // único lock de escritura.
+        long ultimoId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+        long primerId = ultimoId - asistencias.size() + 1;
+        for (int i = 0; i < asistencias.size(); i++) {
+            asistencias.get(i).setIdAsistencia((int) (primerId + i));
+        }
+
+        Set<AsistenciaDiariaService.Dia> dias = new LinkedHashSet<>();
+        for (Asistencia a : asistencias) {
+            if (a.getFecha() != null) {
+                dias.add(new AsistenciaDiariaService.Dia(a.getPersonal().getIdPersonal(), a.getFecha().toLocalDate()));
+            }
+        }
+        asistenciaDiaria.actualizar(dias);
+        versiones.cambios(VersionesService.Coleccion.ASISTENCIA,
+                asistencias.stream().map(a -> a.getPersonal().getIdPersonal()).toList());
+        eventos.asistencias(asistencias.stream().map(a -> new EventoAsistencia(a.getIdAsistencia(),
+                a.getPersonal().getIdPersonal(),
+                a.getMovimiento() != null ? a.getMovimiento().getIdMovimiento() : null,
+                a.getFecha())).toList());
+    }
+
+    /**
+     * Borra las marcas indicadas y recalcula los días que quedaron afectados.
+     * Devuelve la cantidad de filas borradas.
+     */
+    @Transactional
+    public int eliminar(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Set<AsistenciaDiariaService.Dia> dias = new LinkedHashSet<>();
+        Set<Integer> duenos = new HashSet<>();
+        jdbcTemplate.query("SELECT id_personal, substr(fecha, 1, 10) AS dia FROM asistencia "
+                + "WHERE id_asistencia IN (" + marcadores + ")", rs -> {
+            int idPersonal = rs.getInt("id_personal");
+            Integer dueno = rs.wasNull() ? null : idPersonal;
+            // Una marca sin personal invalida las versiones de todos (dueño null)
+            duenos.add(dueno);
+            if (dueno != null && rs.getString("dia") != null) {
+                dias.add(new AsistenciaDiariaService.Dia(dueno, LocalDate.parse(rs.getString("dia"))));
+            }
+        }, ids.toArray());
+
+        int borradas = jdbcTemplate.update(
+                "DELETE FROM asistencia WHERE id_asistencia IN (" + marcadores + ")", ids.toArray());
+        asistenciaDiaria.actualizar(dias);
+        versiones.cambios(VersionesService.Coleccion.ASISTENCIA, duenos);
+        return borradas;
+    }
+
+    /**
+     * Toda marca pertenece a un personal, aunque la registre quien gestiona la
+     * asistencia de otros: insertar() no acepta filas sin dueño.
+     */
+    public static boolean sinPersonal(Asistencia a) {
+        return a.getPersonal() == null || a.getPersonal().getIdPersonal() == null;
+    }
+
+    private String validar(Asistencia a, boolean esAdmin, Integer idPersonal, Map<Integer, Movimiento> movimientos) {
+        if (a == null) {
+            return "Marca vacía";
+        }
+        if (sinPersonal(a)) {
+            return "Falta información del personal";
+        }
+        if (!esAdmin && !a.getPersonal().getIdPersonal().equals(idPersonal)) {
+            return "Solo puedes marcar tu propia asistencia";
+        }
+        if (a.getMovimiento() != null && a.getMovimiento().getIdMovimiento() != null
+                && !movimientos.containsKey(a.getMovimiento().getIdMovimiento())) {
+            return "Movimiento no encontrado";
+        }
+        return null;
+    }
+}
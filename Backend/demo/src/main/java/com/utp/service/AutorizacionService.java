@@ -0,0 +1,118 @@
+package com.utp.service;
+
+import com.utp.dto.EventoAutorizacion;
+import com.utp.dto.ResultadoResolucion;
+import com.utp.model.Autorizacion;
+import com.utp.model.FechaHoraConverter;
+import com.utp.repository.AutorizacionRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aprobación y rechazo de autorizaciones. Cada cambio de estado es un único
+ * UPDATE condicionado a que la autorización siga pendiente (compare-and-set):
+ * si dos administradores resuelven la misma a la vez, sólo uno la cambia y
+ * el otro recibe 409. RETURNING devuelve cuáles cambiaron y de quién eran,
+ * sin leer antes las entidades.
+ */
+@Service
+public class AutorizacionService {
+
+    private static final String SQL_RESOLVER = """
+            UPDATE autorizacion SET estado = ?, fecha_aprobacion = ?, id_user_autoriza = ?
+            WHERE estado = '%s' AND id_autorizacion IN (%s)
+            RETURNING id_autorizacion, id_usuario
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AutorizacionRepository repo;
+    private final VersionesService versiones;
+    private final EventosService eventos;
+
+    public AutorizacionService(JdbcTemplate jdbcTemplate, AutorizacionRepository repo, VersionesService versiones,
+                               EventosService eventos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repo = repo;
+        this.versiones = versiones;
+        this.eventos = eventos;
+    }
+
+    /**
+     * Pasa una autorización pendiente a {@code estado}. 404 si no existe, 409
+     * si ya fue resuelta.
+     */
+    @Transactional
+    public void cambiarEstado(Integer id, String estado, Integer idUsuarioAutoriza) {
+        if (!resolver(List.of(id), estado, idUsuarioAutoriza).resueltas().isEmpty()) {
+            return;
+        }
+        if (!repo.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Autorización no encontrada");
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "La autorización ya fue resuelta");
+    }
+
+    @Transactional
+    public ResultadoResolucion aprobar(List<Integer> ids, Integer idUsuarioAutoriza) {
+        return resolver(ids, Autorizacion.APROBADO, idUsuarioAutoriza);
+    }
+
+    @Transactional
+    public ResultadoResolucion rechazar(List<Integer> ids, Integer idUsuarioAutoriza) {
+        return resolver(ids, Autorizacion.RECHAZADO, idUsuarioAutoriza);
+    }
+
+    /**
+     * Pasa a {@code estado} las autorizaciones de {@code ids} que siguen
+     * pendientes. Las demás (inexistentes o ya resueltas) quedan como omitidas.
+     * Como no pasa por Hibernate, avisa el cambio a VersionesService; al
+     * confirmar, publica las resueltas en EventosService.
+     */
+    private ResultadoResolucion resolver(List<Integer> ids, String estado, Integer idUsuarioAutoriza) {
+        Set<Integer> pedidas = new LinkedHashSet<>(ids);
+        pedidas.remove(null);
+        if (pedidas.isEmpty()) {
+            return new ResultadoResolucion(estado, List.of(), List.of());
+        }
+
+        String sql = SQL_RESOLVER.formatted(Autorizacion.PENDIENTE,
+                String.join(", ", Collections.nCopies(pedidas.size(), "?")));
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(pedidas.size() + 3);
+        args.add(estado);
+        args.add(FechaHoraConverter.aTexto(ahora));
+        args.add(idUsuarioAutoriza);
+        args.addAll(pedidas);
+
+        Set<Integer> resueltas = new HashSet<>();
+        List<Integer> duenos = new ArrayList<>();
+        List<EventoAutorizacion> cambios = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            int idAutorizacion = rs.getInt("id_autorizacion");
+            int idUsuario = rs.getInt("id_usuario");
+            // Una autorización sin solicitante invalida las versiones de todos
+            Integer dueno = rs.wasNull() ? null : idUsuario;
+            resueltas.add(idAutorizacion);
+            duenos.add(dueno);
+            cambios.add(new EventoAutorizacion(idAutorizacion, dueno, estado, idUsuarioAutoriza, ahora));
+        }, args.toArray());
+
+        versiones.cambios(VersionesService.Coleccion.AUTORIZACION, duenos);
+        eventos.autorizaciones(cambios);
+
+        List<Integer> enOrden = pedidas.stream().filter(resueltas::contains).toList();
+        List<Integer> omitidas = pedidas.stream().filter(id -> !resueltas.contains(id)).toList();
+        return new ResultadoResolucion(estado, enOrden, omitidas);
+    }
+}
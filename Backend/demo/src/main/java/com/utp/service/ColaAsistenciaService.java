@@ -0,0 +1,189 @@
+package com.utp.service;
+
+import com.utp.model.Asistencia;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cola de escritura de marcas. Los requests encolan su asistencia y un único
+ * hilo escritor vacía la cola y guarda cada tanda en una sola transacción
+ * (group commit), en vez de competir entre sí por el lock de escritura de
+ * SQLite. Cada llamador recibe un future que se completa cuando su fila ya
+ * está confirmada.
+ */
+@Service
+public class ColaAsistenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaAsistenciaService.class);
+
+    private final AsistenciaLoteService loteService;
+    private final int capacidad;
+    private final int loteMaximo;
+    private final long esperaMaximaMs;
+
+    private final Queue<Pendiente> cola = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendientes = new AtomicInteger();
+    private volatile boolean activo = true;
+    private Thread escritor;
+
+    /**
+     * Marca en espera. {@code tomada} la reclama con un CAS quien llegue
+     * primero: el escritor antes de insertarla o el llamador al vencer su
+     * espera. Así una marca cuyo cliente ya recibió 503 nunca se escribe, y una
+     * que el escritor ya tomó nunca se informa como fallida.
+     */
+    private record Pendiente(Asistencia asistencia, CompletableFuture<Asistencia> resultado, AtomicBoolean tomada) {
+
+        Pendiente(Asistencia asistencia) {
+            this(asistencia, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        boolean tomar() {
+            return tomada.compareAndSet(false, true);
+        }
+    }
+
+    public ColaAsistenciaService(AsistenciaLoteService loteService,
+                                 @Value("${asistencia.cola.capacidad:10000}") int capacidad,
+                                 @Value("${asistencia.cola.lote-maximo:500}") int loteMaximo,
+                                 @Value("${asistencia.cola.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        this.loteService = loteService;
+        this.capacidad = capacidad;
+        this.loteMaximo = loteMaximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        escritor = new Thread(this::ejecutar, "cola-asistencia");
+        escritor.start();
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        LockSupport.unpark(escritor);
+        escritor.join(esperaMaximaMs);
+    }
+
+    /**
+     * Encola la marca y espera a que quede guardada. Si la espera vence antes
+     * de que el escritor la tome, se retira de la cola y se responde 503; si ya
+     * la tomó, se sigue esperando su commit para no invitar a un reintento que
+     * la duplicaría.
+     */
+    public Asistencia registrar(Asistencia asistencia) {
+        Pendiente pendiente = agregar(asistencia);
+        try {
+            try {
+                return pendiente.resultado().get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pendiente.tomar()) {
+                    pendiente.resultado().cancel(false);
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "La marca no se confirmó a tiempo");
+                }
+                return pendiente.resultado().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Registro de marca interrumpido");
+        } catch (ExecutionException e) {
+            // El detalle queda en el log; al cliente no se le expone el mensaje interno
+            log.error("No se pudo registrar la marca", e.getCause());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "No se pudo registrar la marca");
+        }
+    }
+
+    public CompletableFuture<Asistencia> encolar(Asistencia asistencia) {
+        return agregar(asistencia).resultado();
+    }
+
+    private Pendiente agregar(Asistencia asistencia) {
+        // Una fila sin personal haría fallar la tanda entera en el escritor
+        if (AsistenciaLoteService.sinPersonal(asistencia)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta información del personal");
+        }
+        if (!activo) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "El servidor se está deteniendo");
+        }
+        if (pendientes.incrementAndGet() > capacidad) {
+            pendientes.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiadas marcas en espera, reintente");
+        }
+
+        Pendiente pendiente = new Pendiente(asistencia);
+        cola.offer(pendiente);
+        LockSupport.unpark(escritor);
+        return pendiente;
+    }
+
+    private void ejecutar() {
+        List<Pendiente> lote = new ArrayList<>(loteMaximo);
+        while (activo || !cola.isEmpty()) {
+            Pendiente p;
+            int retiradas = 0;
+            while (lote.size() < loteMaximo && (p = cola.poll()) != null) {
+                retiradas++;
+                // Las que el llamador ya dio por vencidas no se escriben
+                if (p.tomar()) {
+                    lote.add(p);
+                }
+            }
+
+            if (retiradas == 0) {
+                // encolar() despierta al escritor; sin marcas no hay nada que sondear
+                LockSupport.park(this);
+                continue;
+            }
+
+            pendientes.addAndGet(-retiradas);
+            try {
+                escribir(lote);
+            } catch (Throwable e) {
+                // El escritor es único: ninguna falla puede terminar el hilo ni dejar futures sin completar
+                log.error("Error inesperado al escribir {} marcas", lote.size(), e);
+                lote.forEach(pendiente -> pendiente.resultado().completeExceptionally(e));
+            }
+            lote.clear();
+        }
+    }
+
+    private void escribir(List<Pendiente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            loteService.insertar(lote.stream().map(Pendiente::asistencia).toList());
+            lote.forEach(p -> p.resultado().complete(p.asistencia()));
+        } catch (Throwable e) {
+            // Si la tanda falla se reintenta fila por fila para aislar la marca inválida
+            log.warn("Falló la escritura de {} marcas, se reintenta una por una", lote.size(), e);
+            for (Pendiente p : lote) {
+                try {
+                    loteService.insertar(List.of(p.asistencia()));
+                    p.resultado().complete(p.asistencia());
+                } catch (Throwable ex) {
+                    p.resultado().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.utp.service;
+
+import com.utp.dto.EventoAsistencia;
+import com.utp.dto.EventoAutorizacion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reparto de eventos en vivo (GET /api/eventos). Los cambios confirmados de
+ * asistencia y autorizacion se publican aquí después del commit, sin volver a
+ * leer la base: el costo de cada tablero abierto es una cola en memoria.
+ *
+ * publicar() nunca bloquea a quien escribe: ofrece el evento a la cola acotada
+ * de cada suscriptor que puede verlo y, si hace falta, lanza un envío en un
+ * hilo virtual. Cada suscriptor tiene a lo sumo un envío en curso, así un
+ * cliente lento sólo se atrasa a sí mismo. Si su cola se llena se cierra la
+ * conexión: al reconectar, la app recarga los listados y no pierde nada.
+ *
+ * El tope de conexiones se reserva con un contador atómico antes de crear el
+ * emitter, no comparando el tamaño del set: dos suscripciones simultáneas no
+ * pueden pasar ambas con el último lugar libre.
+ */
+@Service
+public class EventosService {
+
+    public static final String ASISTENCIA = "asistencia";
+    public static final String AUTORIZACION = "autorizacion";
+
+    // Señal interna de la cola: en lugar de un evento se envía un comentario
+    private static final Evento LATIDO = new Evento(null, null, null, null);
+
+    private record Evento(String tipo, Integer idPersonal, Integer idUsuario, Object datos) {
+    }
+
+    private final int buffer;
+    private final int maxSuscriptores;
+    private final long timeoutMs;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("eventos-", 0).factory());
+    private final ScheduledExecutorService latidos = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("eventos-latido").daemon().factory());
+    private final Counter desbordes;
+
+    public EventosService(MeterRegistry registry,
+                          @Value("${eventos.buffer:256}") int buffer,
+                          @Value("${eventos.max-suscriptores:200}") int maxSuscriptores,
+                          @Value("${eventos.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${eventos.latido-ms:25000}") long latidoMs) {
+        this.buffer = buffer;
+        this.maxSuscriptores = maxSuscriptores;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("eventos.suscriptores", conexiones, AtomicInteger::get)
+                .description("Conexiones abiertas a /api/eventos")
+                .register(registry);
+        this.desbordes = Counter.builder("eventos.desbordes")
+                .description("Suscriptores cerrados por llenar su cola de eventos")
+                .register(registry);
+        // El latido mantiene viva la conexión en proxies y detecta clientes que ya no están
+        latidos.scheduleAtFixedRate(() -> suscriptores.forEach(s -> s.ofrecer(LATIDO)),
+                latidoMs, latidoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        latidos.shutdownNow();
+        suscriptores.forEach(Suscriptor::cerrar);
+        envios.shutdown();
+    }
+
+    /**
+     * Abre un stream para {@code principal}. Se cierra a más tardar cuando
+     * vence su token, para que la app reconecte con uno vigente.
+     */
+    public SseEmitter suscribir(JwtPrincipal principal) {
+        if (conexiones.incrementAndGet() > maxSuscriptores) {
+            conexiones.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiadas conexiones de eventos");
+        }
+
+        long timeout = timeoutMs;
+        if (principal.expiracion() != null) {
+            timeout = Math.max(1, Math.min(timeout, Duration.between(Instant.now(), principal.expiracion()).toMillis()));
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        Suscriptor suscriptor = new Suscriptor(principal, emitter);
+        emitter.onCompletion(suscriptor::liberar);
+        emitter.onTimeout(suscriptor::cerrar);
+        emitter.onError(e -> suscriptor.cerrar());
+        suscriptores.add(suscriptor);
+
+        // El primer latido envía los encabezados; la app sabe que ya está escuchando
+        suscriptor.ofrecer(LATIDO);
+        return emitter;
+    }
+
+    public void asistencias(Collection<EventoAsistencia> marcas) {
+        publicar(marcas.stream().map(m -> new Evento(ASISTENCIA, m.idPersonal(), null, m)).toList());
+    }
+
+    public void autorizaciones(Collection<EventoAutorizacion> autorizaciones) {
+        publicar(autorizaciones.stream().map(a -> new Evento(AUTORIZACION, null, a.idUsuario(), a)).toList());
+    }
+
+    /**
+     * Dentro de una transacción los eventos salen recién al confirmarla: nadie
+     * ve una marca que después se revierte.
+     */
+    private void publicar(List<Evento> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    repartir(eventos);
+                }
+            });
+        } else {
+            repartir(eventos);
+        }
+    }
+
+    private void repartir(List<Evento> eventos) {
+        for (Suscriptor suscriptor : suscriptores) {
+            for (Evento evento : eventos) {
+                if (suscriptor.puedeVer(evento)) {
+                    suscriptor.ofrecer(evento);
+                }
+            }
+        }
+    }
+
+    private final class Suscriptor {
+
+        private final JwtPrincipal principal;
+        private final SseEmitter emitter;
+        private final Queue<Evento> cola;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean liberado = new AtomicBoolean();
+        private volatile boolean cerrado;
+
+        Suscriptor(JwtPrincipal principal, SseEmitter emitter) {
+            this.principal = principal;
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(buffer);
+        }
+
+        // Mismo criterio que Visibilidad; quien resuelve autorizaciones ve todas las solicitudes
+        boolean puedeVer(Evento evento) {
+            if (principal.tiene(Permiso.VER_TODO)) {
+                return true;
+            }
+            if (ASISTENCIA.equals(evento.tipo())) {
+                return principal.esPersonal(evento.idPersonal());
+            }
+            return principal.tiene(Permiso.RESOLVER_AUTORIZACIONES)
+                    || (evento.idUsuario() != null && evento.idUsuario().equals(principal.id()));
+        }
+
+        void ofrecer(Evento evento) {
+            if (cerrado) {
+                return;
+            }
+            if (!cola.offer(evento)) {
+                desbordes.increment();
+                cerrar();
+                return;
+            }
+            if (enviando.compareAndSet(false, true)) {
+                programar();
+            }
+        }
+
+        private void programar() {
+            try {
+                envios.execute(this::vaciar);
+            } catch (RejectedExecutionException e) {
+                // El servicio se está deteniendo
+                cerrar();
+            }
+        }
+
+        private void vaciar() {
+            try {
+                Evento evento;
+                while (!cerrado && (evento = cola.poll()) != null) {
+                    emitter.send(evento == LATIDO
+                            ? SseEmitter.event().comment("")
+                            : SseEmitter.event().name(evento.tipo()).data(evento.datos()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o stream ya completado
+                cerrar();
+            } finally {
+                enviando.set(false);
+            }
+            // Un evento ofrecido entre el último poll y el set(false) no debe quedar varado
+            if (!cerrado && !cola.isEmpty() && enviando.compareAndSet(false, true)) {
+                programar();
+            }
+        }
+
+        void cerrar() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            liberar();
+            cola.clear();
+            emitter.complete();
+        }
+
+        // onCompletion y cerrar() pueden correr ambos; el lugar se devuelve una sola vez
+        void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                suscriptores.remove(this);
+                conexiones.decrementAndGet();
+            }
+        }
+    }
+}
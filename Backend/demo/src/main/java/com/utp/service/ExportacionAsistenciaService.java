@@ -0,0 +1,183 @@
+package com.utp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.dto.AsistenciaItem;
+import com.utp.model.FechaHoraConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exporta el historial de marcas por bloques de keyset (fecha, id): cada
+ * bloque se lee en una transacción readOnly corta y se escribe en la respuesta
+ * después de soltar la conexión. Una descarga lenta no retiene un lector del
+ * pool ni frena los checkpoints del WAL, y en memoria nunca hay más de un
+ * bloque. No es una foto única: una marca insertada durante la descarga sale
+ * si cae después del bloque en curso.
+ */
+@Service
+public class ExportacionAsistenciaService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String CABECERA_CSV = "idAsistencia,fecha,ipMarcador,idPersonal,nombre,apellPaterno,"
+            + "apellMaterno,nroDocumento,idMovimiento,movimiento,abreDesc,idAutorizacion";
+
+    private static final String SQL_EXPORTAR = """
+            SELECT a.id_asistencia, a.fecha, a.ip_marcador,
+                   p.id_personal, p.nombre, p.apell_paterno, p.apell_materno, p.nro_documento,
+                   m.id_movimiento, m.descripcion, m.abre_desc, a.id_autorizacion
+            FROM asistencia a
+            LEFT JOIN personal p ON p.id_personal = a.id_personal
+            LEFT JOIN movimiento m ON m.id_movimiento = a.id_movimiento
+            WHERE a.fecha >= ? AND a.fecha < ?
+              AND (a.fecha > ? OR (a.fecha = ? AND a.id_asistencia > ?))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lectura;
+    private final int tamanioBloque;
+
+    // Filas de un bloque y la clave (fecha tal como está guardada, id) de la última
+    private record Bloque(List<AsistenciaItem> filas, String ultimaFecha, int ultimoId) {
+    }
+
+    public ExportacionAsistenciaService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${asistencia.exportacion.bloque:500}") int tamanioBloque) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.tamanioBloque = tamanioBloque;
+    }
+
+    /**
+     * Escribe en {@code salida} las marcas de [desde, hasta) ordenadas por fecha,
+     * sólo las de {@code idPersonal} si no es null. Sin transacción propia: cada
+     * bloque abre y cierra la suya en el pool de lectores.
+     */
+    public void exportar(String formato, LocalDateTime desde, LocalDateTime hasta, Integer idPersonal,
+                         OutputStream salida) throws IOException {
+
+        StringBuilder sql = new StringBuilder(SQL_EXPORTAR);
+        if (idPersonal != null) {
+            sql.append("  AND a.id_personal = ?\n");
+        }
+        sql.append("ORDER BY a.fecha, a.id_asistencia\nLIMIT ").append(tamanioBloque);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        JsonGenerator generador = null;
+        if (NDJSON.equals(formato)) {
+            generador = objectMapper.getFactory().createGenerator(writer);
+            generador.setRootValueSeparator(null);
+        } else {
+            writer.write(CABECERA_CSV);
+            writer.write('\n');
+        }
+
+        // Se arranca antes de la primera fila posible: todo id es mayor que 0
+        String textoDesde = FechaHoraConverter.aTexto(desde);
+        Bloque bloque = new Bloque(List.of(), textoDesde, 0);
+        do {
+            bloque = leerBloque(sql.toString(), textoDesde, FechaHoraConverter.aTexto(hasta), idPersonal,
+                    bloque.ultimaFecha(), bloque.ultimoId());
+            for (AsistenciaItem fila : bloque.filas()) {
+                if (generador != null) {
+                    generador.writeObject(fila);
+                    generador.writeRaw('\n');
+                } else {
+                    escribirCsv(writer, fila);
+                }
+            }
+        } while (bloque.filas().size() == tamanioBloque);
+
+        if (generador != null) {
+            generador.flush();
+        }
+        writer.flush();
+    }
+
+    private Bloque leerBloque(String sql, String desde, String hasta, Integer idPersonal,
+                              String cursorFecha, int cursorId) {
+        List<Object> parametros = new ArrayList<>(List.of(desde, hasta, cursorFecha, cursorFecha, cursorId));
+        if (idPersonal != null) {
+            parametros.add(idPersonal);
+        }
+        return lectura.execute(estado -> {
+            List<AsistenciaItem> filas = new ArrayList<>(tamanioBloque);
+            String[] ultimaFecha = {cursorFecha};
+            jdbcTemplate.query(sql, rs -> {
+                filas.add(leerFila(rs));
+                ultimaFecha[0] = rs.getString("fecha");
+            }, parametros.toArray());
+            int ultimoId = filas.isEmpty() ? cursorId : filas.get(filas.size() - 1).idAsistencia();
+            return new Bloque(filas, ultimaFecha[0], ultimoId);
+        });
+    }
+
+    private static AsistenciaItem leerFila(ResultSet rs) throws SQLException {
+        return new AsistenciaItem(
+                rs.getInt("id_asistencia"),
+                FechaHoraConverter.aFecha(rs.getString("fecha")),
+                rs.getString("ip_marcador"),
+                entero(rs, "id_personal"),
+                rs.getString("nombre"),
+                rs.getString("apell_paterno"),
+                rs.getString("apell_materno"),
+                rs.getString("nro_documento"),
+                entero(rs, "id_movimiento"),
+                rs.getString("descripcion"),
+                rs.getString("abre_desc"),
+                entero(rs, "id_autorizacion"));
+    }
+
+    private static Integer entero(ResultSet rs, String columna) throws SQLException {
+        int valor = rs.getInt(columna);
+        return rs.wasNull() ? null : valor;
+    }
+
+    private static void escribirCsv(Writer writer, AsistenciaItem fila) throws IOException {
+        Object[] valores = {
+                fila.idAsistencia(), FechaHoraConverter.aTexto(fila.fecha()), fila.ipMarcador(),
+                fila.idPersonal(), fila.nombre(), fila.apellPaterno(), fila.apellMaterno(), fila.nroDocumento(),
+                fila.idMovimiento(), fila.movimiento(), fila.abreDesc(), fila.idAutorizacion()
+        };
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(campoCsv(valores[i]));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: se entrecomilla el campo si trae coma, comillas o salto de línea
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
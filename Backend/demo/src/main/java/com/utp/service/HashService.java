@@ -0,0 +1,59 @@
+package com.utp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado para el trabajo de BCrypt. Los inicios de sesión simultáneos
+ * ocupan como máximo {@code seguridad.hash.hilos} procesadores y esperan en
+ * una cola de {@code seguridad.hash.cola}; el resto se rechaza con 503 en vez
+ * de dejar sin CPU a los demás endpoints.
+ */
+@Service
+public class HashService {
+
+    private final ThreadPoolExecutor executor;
+
+    public HashService(@Value("${seguridad.hash.hilos:0}") int hilos,
+                       @Value("${seguridad.hash.cola:200}") int cola) {
+        // 0: la mitad de los procesadores disponibles
+        int tamanio = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanio, tamanio, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "hash-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ejecuta {@code tarea} en el pool. Lanza 503 si el pool y su cola están llenos.
+     */
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Demasiados inicios de sesión en curso, reintente");
+        }
+    }
+}
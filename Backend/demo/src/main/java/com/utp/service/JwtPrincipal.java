@@ -0,0 +1,34 @@
+package com.utp.service;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Datos del usuario autenticado extraídos una sola vez del JWT. El filtro lo
+ * registra como principal en el SecurityContext y los controladores lo
+ * reciben con {@code @AuthenticationPrincipal}.
+ *
+ * {@code id} es el id del usuario; {@code idPersonal} el del personal asociado
+ * (null si no tiene), que es el dueño de las marcas. Con ellos los controladores
+ * resuelven "mis datos" sin buscar al usuario en la base. {@code permisos} es
+ * la máscara de {@link Permiso} de su cargo y rol.
+ */
+public record JwtPrincipal(Integer id, String username, String cargo, Integer idPersonal, Integer idRol,
+                           int permisos, Instant expiracion) implements Principal {
+
+    public boolean tiene(Permiso permiso) {
+        return permiso.en(permisos);
+    }
+
+    /**
+     * true si el principal es el dueño del personal {@code idPersonal}.
+     */
+    public boolean esPersonal(Integer idPersonal) {
+        return this.idPersonal != null && this.idPersonal.equals(idPersonal);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,15 +1,22 @@
 package com.utp.service;
 
 import com.utp.model.Usuario;
+import com.utp.repository.UsuarioRepository;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class JwtService {
@@ -21,6 +28,34 @@ public class JwtService {
 
     private static final long EXPIRATION_TIME = 1000 * 60 * 60; 
 
+    // Tokens ya verificados que se guardan como máximo en memoria
+    private static final int MAX_TOKENS_VERIFICADOS = 10_000;
+
+    // El parser es inmutable y thread-safe: se construye una sola vez
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
+    private final Map<String, JwtPrincipal> verificados = new ConcurrentHashMap<>();
+
+    // La verificación de firma se mide; el acierto en memoria sólo se cuenta
+    private final Timer verificacion;
+    private final Counter aciertosMemoria;
+
+    // Sólo para tokens emitidos antes de que llevaran idPersonal y permisos
+    private final UsuarioRepository usuarioRepo;
+
+    public JwtService(MeterRegistry registry, UsuarioRepository usuarioRepo) {
+        this.usuarioRepo = usuarioRepo;
+        this.verificacion = Timer.builder("seguridad.jwt.verificacion")
+                .description("Verificación de firma y expiración de tokens no vistos")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.aciertosMemoria = Counter.builder("seguridad.jwt.memoria")
+                .description("Tokens resueltos desde los ya verificados")
+                .register(registry);
+    }
+
     public String generateToken(Usuario usuario) {
        
         String cargo = "SinRol";
@@ -28,19 +63,86 @@ public class JwtService {
             cargo = usuario.getPersonal().getCargo().getDescripcion();
         }
 
+        // Un claim null no se escribe: el token de un usuario sin personal no lo trae
         return Jwts.builder()
                 .setSubject(usuario.getUsuario())
                 .claim("cargo",cargo)
                 .claim("id", usuario.getIdUsuario())
+                .claim("idPersonal", usuario.getPersonal() != null ? usuario.getPersonal().getIdPersonal() : null)
+                .claim("idRol", usuario.getRol() != null ? usuario.getRol().getIdRol() : null)
+                .claim("permisos", permisos(usuario))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica el token y devuelve sus datos. Un token ya verificado se
+     * resuelve desde memoria hasta que expira.
+     *
+     * @throws io.jsonwebtoken.JwtException si la firma no es válida o el token expiró
+     */
+    public JwtPrincipal parse(String token) {
+        JwtPrincipal principal = verificados.get(token);
+        if (principal != null) {
+            if (principal.expiracion().toEpochMilli() > System.currentTimeMillis()) {
+                aciertosMemoria.increment();
+                return principal;
+            }
+            // Expirado: se descarta y el parser lanza ExpiredJwtException
+            verificados.remove(token, principal);
+        }
+
+        Claims claims = verificacion.record(() -> extractAllClaims(token));
+        String cargo = claims.get("cargo", String.class);
+        Integer id = claims.get("id", Integer.class);
+        Integer idPersonal = claims.get("idPersonal", Integer.class);
+        Integer idRol = claims.get("idRol", Integer.class);
+        Integer permisos = claims.get("permisos", Integer.class);
+        if (permisos == null && id != null) {
+            // Token anterior a estos claims: una búsqueda por clave, y el
+            // resultado queda con el token en verificados
+            Usuario usuario = usuarioRepo.findById(id).orElse(null);
+            if (usuario != null) {
+                idPersonal = usuario.getPersonal() != null ? usuario.getPersonal().getIdPersonal() : null;
+                idRol = usuario.getRol() != null ? usuario.getRol().getIdRol() : null;
+                permisos = permisos(usuario);
+            }
+        }
+        principal = new JwtPrincipal(
+                id,
+                claims.getSubject(),
+                cargo != null ? cargo.trim() : "",
+                idPersonal,
+                idRol,
+                permisos != null ? permisos : 0,
+                claims.getExpiration().toInstant());
+
+        if (verificados.size() >= MAX_TOKENS_VERIFICADOS) {
+            purgarVerificados();
+        }
+        verificados.put(token, principal);
+        return principal;
+    }
+
+    /**
+     * Unión de los permisos del cargo del personal y del rol del usuario.
+     */
+    static int permisos(Usuario usuario) {
+        int permisos = 0;
+        if (usuario.getPersonal() != null && usuario.getPersonal().getCargo() != null) {
+            permisos |= usuario.getPersonal().getCargo().getPermisos();
+        }
+        if (usuario.getRol() != null) {
+            permisos |= usuario.getRol().getPermisos();
+        }
+        return permisos;
+    }
+
     public boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
+            parse(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -48,23 +150,26 @@ public class JwtService {
     }
 
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return parse(token).username();
     }
 
     public String extractCargo(String token) {
-        String cargo = extractAllClaims(token).get("cargo", String.class);
-        return cargo != null ? cargo.trim() : "";
+        return parse(token).cargo();
     }
 
     public Integer extractId(String token) {
-        return extractAllClaims(token).get("id", Integer.class);
+        return parse(token).id();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private void purgarVerificados() {
+        long ahora = System.currentTimeMillis();
+        verificados.values().removeIf(p -> p.expiracion().toEpochMilli() <= ahora);
+        if (verificados.size() >= MAX_TOKENS_VERIFICADOS) {
+            verificados.clear();
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.utp.service;
+
+/**
+ * Capacidades que un cargo o rol puede otorgar. Cada una ocupa un bit fijo de
+ * la máscara guardada en cargo.permisos y rol.permisos y enviada en el claim
+ * "permisos" del token; el bit no depende del orden de declaración, así que
+ * agregar un permiso no invalida los tokens ni los datos existentes.
+ */
+public enum Permiso {
+
+    // Ver los registros de todo el personal, no sólo los propios
+    VER_TODO(0),
+    GESTIONAR_PERSONAL(1),
+    GESTIONAR_USUARIOS(2),
+    // Marcar o borrar asistencia de otro personal
+    GESTIONAR_ASISTENCIA(3),
+    RESOLVER_AUTORIZACIONES(4),
+    // Cargos, roles, movimientos y documentos
+    GESTIONAR_CATALOGOS(5),
+    VER_REPORTES(6),
+    // Caché, reconstrucción de tablas derivadas y métricas
+    ADMINISTRAR_SISTEMA(7);
+
+    public static final int TODOS = todos();
+
+    private final int mascara;
+
+    Permiso(int bit) {
+        this.mascara = 1 << bit;
+    }
+
+    public int mascara() {
+        return mascara;
+    }
+
+    public boolean en(int permisos) {
+        return (permisos & mascara) != 0;
+    }
+
+    private static int todos() {
+        int mascara = 0;
+        for (Permiso p : values()) {
+            mascara |= p.mascara;
+        }
+        return mascara;
+    }
+}
@@ -0,0 +1,160 @@
+package com.utp.service;
+
+import com.utp.dto.ResumenAsistencia;
+import com.utp.dto.ResumenDia;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resumen de planilla por personal (asistencias, demoras, faltas y descuento).
+ * Replica la lógica de calcularResumen de la app leyendo asistencia_diaria,
+ * que ya trae una fila por personal y día con su tardanza calculada.
+ */
+@Service
+public class ReporteService {
+
+    private static final double DESCUENTO_FALTA = 5.0;
+    private static final double DESCUENTO_DEMORA = 2.0;
+
+    // Una fila por personal y día con marcas en [desde, hasta); el personal sin
+    // marcas pero con usuario aparece con los campos del día en null.
+    private static final String SQL_RESUMEN_POR_DIA = """
+            SELECT p.id_personal, p.nombre, p.apell_paterno, p.apell_materno, p.nro_documento,
+                   (SELECT u.fecha_creacion FROM usuario u WHERE u.id_personal = p.id_personal
+                    ORDER BY u.id_usuario LIMIT 1) AS fecha_creacion,
+                   d.fecha AS dia, d.tardanza, d.ultima_marca
+            FROM personal p
+            LEFT JOIN asistencia_diaria d ON d.id_personal = p.id_personal AND d.fecha >= ? AND d.fecha < ?
+            WHERE d.id_personal IS NOT NULL
+               OR EXISTS (SELECT 1 FROM usuario u WHERE u.id_personal = p.id_personal)
+            ORDER BY p.id_personal, d.fecha
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReporteService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // readOnly: la consulta va al pool de lectores y no bloquea las marcas
+    @Transactional(readOnly = true)
+    public List<ResumenAsistencia> resumen(LocalDate desde, LocalDate hasta) {
+        LocalDate hoy = LocalDate.now();
+        LocalDate fin = finDelPeriodo(hasta, hoy);
+
+        List<ResumenDia> filas = jdbcTemplate.query(SQL_RESUMEN_POR_DIA,
+                (rs, i) -> new ResumenDia(
+                        rs.getInt("id_personal"),
+                        rs.getString("nombre"),
+                        rs.getString("apell_paterno"),
+                        rs.getString("apell_materno"),
+                        rs.getString("nro_documento"),
+                        fecha(rs.getString("fecha_creacion")),
+                        fecha(rs.getString("dia")),
+                        rs.getBoolean("tardanza"),
+                        rs.getString("ultima_marca")),
+                desde.toString(), fin.plusDays(1).toString());
+        return calcular(filas, desde, hasta, hoy);
+    }
+
+    List<ResumenAsistencia> calcular(List<ResumenDia> filas, LocalDate desde, LocalDate hasta, LocalDate hoy) {
+        LocalDate finGlobal = finDelPeriodo(hasta, hoy);
+
+        // Las filas llegan ordenadas por personal; se conserva ese orden
+        Map<Integer, List<ResumenDia>> porPersonal = filas.stream()
+                .collect(Collectors.groupingBy(ResumenDia::idPersonal, LinkedHashMap::new, Collectors.toList()));
+
+        List<ResumenAsistencia> resultado = new ArrayList<>();
+        for (List<ResumenDia> dias : porPersonal.values()) {
+            ResumenDia personal = dias.get(0);
+
+            // El periodo de cada personal empieza el día siguiente a la creación de su usuario
+            LocalDate inicio = desde;
+            LocalDate creacion = personal.fechaCreacion();
+            if (creacion != null && creacion.plusDays(1).isAfter(inicio)) {
+                inicio = creacion.plusDays(1);
+            }
+
+            // ...y termina en su última marca si es anterior al fin del periodo
+            LocalDate ultimoDia = null;
+            String ultimaMarca = null;
+            for (ResumenDia dia : dias) {
+                LocalDate fecha = dia.dia();
+                if (fecha != null && (ultimoDia == null || fecha.isAfter(ultimoDia))) {
+                    ultimoDia = fecha;
+                }
+                if (dia.ultimaMarca() != null && (ultimaMarca == null || dia.ultimaMarca().compareTo(ultimaMarca) > 0)) {
+                    ultimaMarca = dia.ultimaMarca();
+                }
+            }
+            LocalDate fin = ultimoDia != null && ultimoDia.isBefore(finGlobal) ? ultimoDia : finGlobal;
+
+            int diasLaborables = 0;
+            for (LocalDate d = inicio; !d.isAfter(fin); d = d.plusDays(1)) {
+                if (esLaborable(d)) {
+                    diasLaborables++;
+                }
+            }
+
+            int asistencias = 0;
+            int demoras = 0;
+            for (ResumenDia dia : dias) {
+                LocalDate fecha = dia.dia();
+                if (fecha == null || !esLaborable(fecha) || fecha.isBefore(inicio) || fecha.isAfter(fin)) {
+                    continue;
+                }
+                asistencias++;
+
+                if (dia.tardanza()) {
+                    demoras++;
+                }
+            }
+
+            int faltas = diasLaborables - asistencias;
+            double descuento = faltas * DESCUENTO_FALTA + demoras * DESCUENTO_DEMORA;
+
+            resultado.add(new ResumenAsistencia(
+                    personal.idPersonal(),
+                    nombreCompleto(personal),
+                    personal.nroDocumento(),
+                    asistencias,
+                    demoras,
+                    faltas,
+                    descuento,
+                    ultimaMarca));
+        }
+
+        return resultado;
+    }
+
+    // El periodo nunca se extiende más allá de hoy
+    private static LocalDate finDelPeriodo(LocalDate hasta, LocalDate hoy) {
+        return hasta == null || hasta.isAfter(hoy) ? hoy : hasta;
+    }
+
+    private static boolean esLaborable(LocalDate fecha) {
+        DayOfWeek dia = fecha.getDayOfWeek();
+        return dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY;
+    }
+
+    private static LocalDate fecha(String dia) {
+        return dia != null ? LocalDate.parse(dia) : null;
+    }
+
+    private static String nombreCompleto(ResumenDia p) {
+        String nombre = Stream.of(p.nombre(), p.apellPaterno(), p.apellMaterno())
+                .filter(s -> s != null && !s.isEmpty())
+                .collect(Collectors.joining(" "));
+        return nombre.isEmpty() ? "Sin nombre" : nombre;
+    }
+}
@@ -0,0 +1,127 @@
+package com.utp.service;
+
+import com.utp.dto.CambiosSync;
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+import com.utp.repository.AsistenciaRepository;
+import com.utp.repository.AutorizacionRepository;
+import com.utp.repository.PersonalRepository;
+import com.utp.repository.UsuarioRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sincronización incremental a partir de la tabla cambio, que mantienen los
+ * triggers de V6__cambios.sql. El costo depende de cuántos registros
+ * cambiaron desde la última sincronización, no del tamaño del historial.
+ */
+@Service
+public class SyncService {
+
+    public static final String ASISTENCIA = "asistencia";
+    public static final String AUTORIZACION = "autorizacion";
+    public static final String PERSONAL = "personal";
+    public static final String USUARIO = "usuario";
+
+    // Un empleado ve sus marcas y su ficha de personal (por el personal de su
+    // usuario) y sus autorizaciones y su usuario (por id_usuario)
+    private static final String FILTRO_DUENO = """
+            AND ((entidad IN ('asistencia', 'personal')
+                  AND id_personal = (SELECT id_personal FROM usuario WHERE id_usuario = ?))
+                 OR (entidad IN ('autorizacion', 'usuario') AND id_usuario = ?))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsistenciaRepository asistenciaRepo;
+    private final AutorizacionRepository autorizacionRepo;
+    private final PersonalRepository personalRepo;
+    private final UsuarioRepository usuarioRepo;
+
+    private record Cambio(long seq, String entidad, Integer id, boolean eliminado) {
+    }
+
+    public SyncService(JdbcTemplate jdbcTemplate, AsistenciaRepository asistenciaRepo,
+                       AutorizacionRepository autorizacionRepo, PersonalRepository personalRepo,
+                       UsuarioRepository usuarioRepo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asistenciaRepo = asistenciaRepo;
+        this.autorizacionRepo = autorizacionRepo;
+        this.personalRepo = personalRepo;
+        this.usuarioRepo = usuarioRepo;
+    }
+
+    /**
+     * Hasta {@code limite} cambios posteriores a {@code desde}, sólo los de
+     * {@code idUsuario} si no es null. readOnly: cambios y registros se leen
+     * de la misma instantánea de la base.
+     */
+    @Transactional(readOnly = true)
+    public CambiosSync cambiosDesde(long desde, int limite, Integer idUsuario) {
+        StringBuilder sql = new StringBuilder("SELECT seq, entidad, id_entidad, eliminado FROM cambio WHERE seq > ?\n");
+        List<Object> parametros = new ArrayList<>(List.of(desde));
+        if (idUsuario != null) {
+            sql.append(FILTRO_DUENO);
+            parametros.add(idUsuario);
+            parametros.add(idUsuario);
+        }
+        sql.append("ORDER BY seq LIMIT ?");
+        parametros.add(limite + 1);
+
+        List<Cambio> cambios = jdbcTemplate.query(sql.toString(),
+                (rs, i) -> new Cambio(rs.getLong("seq"), rs.getString("entidad"),
+                        rs.getInt("id_entidad"), rs.getBoolean("eliminado")),
+                parametros.toArray());
+
+        boolean hayMas = cambios.size() > limite;
+        long hasta;
+        if (hayMas) {
+            cambios = cambios.subList(0, limite);
+            hasta = cambios.get(limite - 1).seq();
+        } else {
+            // Se revisó todo hasta el último cambio, visible o no para este usuario
+            hasta = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM cambio", Long.class);
+        }
+
+        Map<String, List<Integer>> modificados = new HashMap<>();
+        List<CambiosSync.Eliminado> eliminados = new ArrayList<>();
+        for (Cambio cambio : cambios) {
+            if (cambio.eliminado()) {
+                eliminados.add(new CambiosSync.Eliminado(cambio.entidad(), cambio.id()));
+            } else {
+                modificados.computeIfAbsent(cambio.entidad(), e -> new ArrayList<>()).add(cambio.id());
+            }
+        }
+
+        return new CambiosSync(hasta, hayMas,
+                cargar(modificados.get(ASISTENCIA), asistenciaRepo::findByIdAsistenciaIn, Asistencia::getIdAsistencia),
+                cargar(modificados.get(AUTORIZACION), autorizacionRepo::findAllById, Autorizacion::getIdAutorizacion),
+                cargar(modificados.get(PERSONAL), personalRepo::findAllById, Personal::getIdPersonal),
+                cargar(modificados.get(USUARIO), usuarioRepo::findAllById, Usuario::getIdUsuario),
+                eliminados);
+    }
+
+    // Una consulta por entidad; el resultado conserva el orden de los cambios
+    private static <T> List<T> cargar(List<Integer> ids, Function<List<Integer>, List<T>> buscar,
+                                      Function<T, Integer> id) {
+        if (ids == null) {
+            return List.of();
+        }
+        Map<Integer, Integer> orden = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            orden.put(ids.get(i), i);
+        }
+        List<T> registros = new ArrayList<>(buscar.apply(ids));
+        registros.sort(Comparator.comparing(r -> orden.get(id.apply(r))));
+        return registros;
+    }
+}
@@ -2,21 +2,40 @@ package com.utp.service;
 
 import com.utp.model.Usuario;
 import com.utp.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UsuarioService {
 
     private final UsuarioRepository repo;
     private final PasswordEncoder passwordEncoder;
+    private final HashService hashService;
+    private final Timer bcryptAceptada;
+    private final Timer bcryptRechazada;
 
-    public UsuarioService(UsuarioRepository repo, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository repo, PasswordEncoder passwordEncoder, HashService hashService,
+                          MeterRegistry registry) {
         this.repo = repo;
         this.passwordEncoder = passwordEncoder;
+        this.hashService = hashService;
+        this.bcryptAceptada = timerBcrypt(registry, "aceptada");
+        this.bcryptRechazada = timerBcrypt(registry, "rechazada");
+    }
+
+    private static Timer timerBcrypt(MeterRegistry registry, String resultado) {
+        return Timer.builder("seguridad.bcrypt.verificacion")
+                .description("Comparación de la contraseña con su hash BCrypt")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
   
@@ -66,24 +85,34 @@ public class UsuarioService {
         repo.deleteById(id);
     }
     
-    public Usuario login(String usuario, String passwordIngresada) {
-    Usuario u = repo.findByUsuario(usuario);
-    if (u != null && passwordEncoder.matches(passwordIngresada, u.getPassword())) {
-        return u;
-    }
-    return null;
-}
+    /**
+     * Busca el usuario una sola vez y verifica la contraseña en el pool de
+     * HashService, fuera del hilo del request. Completa con null si las
+     * credenciales no coinciden. Si el hash se generó con un costo menor al
+     * configurado se vuelve a cifrar con el costo actual.
+     */
+    public CompletableFuture<Usuario> autenticar(String usuario, String passwordIngresada) {
+        Usuario u = repo.findByUsuario(usuario);
+        if (u == null || u.getPassword() == null || passwordIngresada == null) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-   
-   public boolean validarLogin(String usuario, String passwordIngresada) {
-    Usuario u = repo.findByUsuario(usuario);
-    
-    if (u == null) {
-        return false; 
+        return hashService.ejecutar(() -> {
+            String hash = u.getPassword();
+            long inicio = System.nanoTime();
+            boolean coincide = passwordEncoder.matches(passwordIngresada, hash);
+            (coincide ? bcryptAceptada : bcryptRechazada).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            if (!coincide) {
+                return null;
+            }
+            if (passwordEncoder.upgradeEncoding(hash)) {
+                String nuevo = passwordEncoder.encode(passwordIngresada);
+                repo.actualizarPassword(u.getIdUsuario(), hash, nuevo);
+                u.setPassword(nuevo);
+            }
+            return u;
+        });
     }
-
-    return passwordEncoder.matches(passwordIngresada, u.getPassword());
-}
     
  
 }
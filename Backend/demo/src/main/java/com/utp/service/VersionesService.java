@@ -0,0 +1,100 @@
+package com.utp.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones en memoria de las colecciones que listan los endpoints GET. Cada
+ * cambio confirmado toma el siguiente número de una secuencia única y lo
+ * anota en su colección y, si se conoce, en su dueño (personal o usuario).
+ * Con eso los listados arman un ETag sin consultar la base: si ninguna
+ * colección de la que dependen cambió, responden 304.
+ */
+@Service
+public class VersionesService {
+
+    public enum Coleccion { ASISTENCIA, AUTORIZACION, PERSONAL, USUARIO, CATALOGO }
+
+    // Distingue los ETags de cada arranque, ya que la secuencia vuelve a cero
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // Último cambio de la colección, de cualquier dueño
+    private final Map<Coleccion, AtomicLong> total = new EnumMap<>(Coleccion.class);
+    // Último cambio cuyo dueño no se conoce: invalida a todos los dueños
+    private final Map<Coleccion, AtomicLong> todos = new EnumMap<>(Coleccion.class);
+    private final Map<Coleccion, Map<Integer, Long>> porDueno = new EnumMap<>(Coleccion.class);
+
+    public VersionesService() {
+        for (Coleccion c : Coleccion.values()) {
+            total.put(c, new AtomicLong());
+            todos.put(c, new AtomicLong());
+            porDueno.put(c, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Anota un cambio de {@code dueno} (null si se desconoce). Dentro de una
+     * transacción se aplica recién al confirmarla: un listado leído antes del
+     * commit nunca queda asociado a la versión nueva.
+     */
+    public void cambio(Coleccion coleccion, Integer dueno) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambioConfirmado(coleccion, dueno);
+                }
+            });
+        } else {
+            cambioConfirmado(coleccion, dueno);
+        }
+    }
+
+    public void cambios(Coleccion coleccion, Collection<Integer> duenos) {
+        duenos.stream().distinct().forEach(dueno -> cambio(coleccion, dueno));
+    }
+
+    /**
+     * Versión de {@code coleccion} vista por {@code dueno} (null: todos),
+     * combinada con la de las colecciones relacionadas que el listado incluye.
+     */
+    public long version(Coleccion coleccion, Integer dueno, Coleccion... relacionadas) {
+        long version = dueno == null
+                ? total.get(coleccion).get()
+                : Math.max(todos.get(coleccion).get(), porDueno.get(coleccion).getOrDefault(dueno, 0L));
+        for (Coleccion relacionada : relacionadas) {
+            version = Math.max(version, total.get(relacionada).get());
+        }
+        return version;
+    }
+
+    /**
+     * ETag de un listado. El alcance (todos o un dueño) va dentro del valor
+     * porque el mismo número de versión corresponde a contenidos distintos.
+     */
+    public String etag(Coleccion coleccion, Integer dueno, Coleccion... relacionadas) {
+        return "\"" + arranque + "-" + coleccion.name().toLowerCase() + "-" + (dueno == null ? "todos" : "u" + dueno)
+                + "-" + version(coleccion, dueno, relacionadas) + "\"";
+    }
+
+    /**
+     * Anota un cambio que ya está confirmado en la base.
+     */
+    public void cambioConfirmado(Coleccion coleccion, Integer dueno) {
+        long version = secuencia.incrementAndGet();
+        total.get(coleccion).accumulateAndGet(version, Math::max);
+        if (dueno == null) {
+            todos.get(coleccion).accumulateAndGet(version, Math::max);
+        } else {
+            porDueno.get(coleccion).merge(dueno, version, Math::max);
+        }
+    }
+}
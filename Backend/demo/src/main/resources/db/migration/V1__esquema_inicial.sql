@@ -0,0 +1,10 @@
+-- Esquema tal como lo generaba Hibernate con ddl-auto=update. IF NOT EXISTS
+-- permite aplicar la migración sobre bases creadas antes de Flyway.
+CREATE TABLE IF NOT EXISTS cargo (id_cargo integer, descripcion varchar(255), estado varchar(255), primary key (id_cargo));
+CREATE TABLE IF NOT EXISTS documento (id_documento integer, descripcion varchar(255), primary key (id_documento));
+CREATE TABLE IF NOT EXISTS rol (id_rol integer, descripcion varchar(255), estado varchar(255), primary key (id_rol));
+CREATE TABLE IF NOT EXISTS movimiento (id_movimiento integer, abre_desc varchar(255), descripcion varchar(255) not null, estado varchar(255), primary key (id_movimiento));
+CREATE TABLE IF NOT EXISTS personal (id_personal integer, apell_materno varchar(255), apell_paterno varchar(255), email varchar(255), fecha_ingreso varchar(255), fecha_nacimiento varchar(255), nombre varchar(255), nro_documento varchar(255), id_cargo integer, id_documento integer, primary key (id_personal));
+CREATE TABLE IF NOT EXISTS usuario (id_usuario integer, estado varchar(255), fecha_creacion varchar(255), password varchar(255), usuario varchar(255), id_personal integer, id_rol integer, primary key (id_usuario));
+CREATE TABLE IF NOT EXISTS autorizacion (id_autorizacion integer, descripcion varchar(255), estado varchar(255), fecha_aprobacion varchar(255), fecha_solicitud varchar(255), id_movimiento integer, id_user_autoriza integer, id_usuario integer, primary key (id_autorizacion));
+CREATE TABLE IF NOT EXISTS asistencia (id_asistencia integer, fecha varchar(255), ip_marcador varchar(255), id_autorizacion integer, id_movimiento integer, id_personal integer, primary key (id_asistencia));
@@ -0,0 +1,20 @@
+-- Normaliza fechas guardadas como texto libre a los formatos que leen los
+-- converters: "yyyy-MM-dd HH:mm:ss" y "yyyy-MM-dd". Idempotente.
+UPDATE asistencia SET fecha = CASE
+        WHEN length(fecha) = 10 THEN fecha || ' 00:00:00'
+        WHEN length(fecha) = 16 THEN replace(fecha, 'T', ' ') || ':00'
+        ELSE replace(substr(fecha, 1, 19), 'T', ' ') END
+    WHERE length(fecha) <> 19 OR substr(fecha, 11, 1) = 'T';
+UPDATE autorizacion SET fecha_solicitud = CASE
+        WHEN length(fecha_solicitud) = 10 THEN fecha_solicitud || ' 00:00:00'
+        WHEN length(fecha_solicitud) = 16 THEN replace(fecha_solicitud, 'T', ' ') || ':00'
+        ELSE replace(substr(fecha_solicitud, 1, 19), 'T', ' ') END
+    WHERE length(fecha_solicitud) <> 19 OR substr(fecha_solicitud, 11, 1) = 'T';
+UPDATE autorizacion SET fecha_aprobacion = CASE
+        WHEN length(fecha_aprobacion) = 10 THEN fecha_aprobacion || ' 00:00:00'
+        WHEN length(fecha_aprobacion) = 16 THEN replace(fecha_aprobacion, 'T', ' ') || ':00'
+        ELSE replace(substr(fecha_aprobacion, 1, 19), 'T', ' ') END
+    WHERE length(fecha_aprobacion) <> 19 OR substr(fecha_aprobacion, 11, 1) = 'T';
+UPDATE personal SET fecha_ingreso = substr(fecha_ingreso, 1, 10) WHERE length(fecha_ingreso) > 10;
+UPDATE personal SET fecha_nacimiento = substr(fecha_nacimiento, 1, 10) WHERE length(fecha_nacimiento) > 10;
+UPDATE usuario SET fecha_creacion = substr(fecha_creacion, 1, 10) WHERE length(fecha_creacion) > 10;
@@ -0,0 +1,13 @@
+-- Asistencia por personal y rango de fechas (listados, reporte, paginado)
+CREATE INDEX IF NOT EXISTS idx_asistencia_personal_fecha ON asistencia (id_personal, fecha);
+CREATE INDEX IF NOT EXISTS idx_asistencia_fecha ON asistencia (fecha);
+
+-- Login y DataInitializer buscan por usuario y por email
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuario_usuario ON usuario (usuario);
+CREATE INDEX IF NOT EXISTS idx_usuario_personal ON usuario (id_personal);
+CREATE INDEX IF NOT EXISTS idx_personal_email ON personal (email);
+
+-- Autorizaciones por solicitante, estado y fecha
+CREATE INDEX IF NOT EXISTS idx_autorizacion_usuario ON autorizacion (id_usuario);
+CREATE INDEX IF NOT EXISTS idx_autorizacion_estado ON autorizacion (estado);
+CREATE INDEX IF NOT EXISTS idx_autorizacion_fecha_solicitud ON autorizacion (fecha_solicitud);
@@ -0,0 +1,36 @@
+-- Resumen diario por personal, mantenido por AsistenciaDiariaService en la
+-- misma transacción que cada alta o baja de asistencia.
+CREATE TABLE IF NOT EXISTS asistencia_diaria (
+    id_personal integer NOT NULL,
+    fecha varchar(10) NOT NULL,
+    primera_entrada varchar(19),
+    ultima_salida varchar(19),
+    primera_marca varchar(19) NOT NULL,
+    ultima_marca varchar(19) NOT NULL,
+    marcas integer NOT NULL,
+    minutos_trabajados integer,
+    tardanza integer NOT NULL,
+    PRIMARY KEY (id_personal, fecha)
+);
+CREATE INDEX IF NOT EXISTS idx_asistencia_diaria_fecha ON asistencia_diaria (fecha);
+
+-- Carga inicial con las marcas existentes (tardanza: primera entrada después de las 08:15)
+INSERT OR REPLACE INTO asistencia_diaria (id_personal, fecha, primera_entrada, ultima_salida, primera_marca,
+                                          ultima_marca, marcas, minutos_trabajados, tardanza)
+SELECT id_personal, dia, primera_entrada, ultima_salida, primera_marca, ultima_marca, marcas,
+       CASE WHEN ultima_salida > primera_entrada
+            THEN CAST(round((julianday(ultima_salida) - julianday(primera_entrada)) * 1440) AS INTEGER) END,
+       CAST(substr(COALESCE(primera_entrada, primera_marca), 12, 2) AS INTEGER) * 60
+           + CAST(substr(COALESCE(primera_entrada, primera_marca), 15, 2) AS INTEGER) > 495
+FROM (SELECT a.id_personal, substr(a.fecha, 1, 10) AS dia,
+             MIN(CASE WHEN lower(m.descripcion) LIKE '%entrada%' OR upper(m.abre_desc) = 'ENT'
+                      THEN a.fecha END) AS primera_entrada,
+             MAX(CASE WHEN lower(m.descripcion) LIKE '%salida%' OR upper(m.abre_desc) = 'SAL'
+                      THEN a.fecha END) AS ultima_salida,
+             MIN(a.fecha) AS primera_marca,
+             MAX(a.fecha) AS ultima_marca,
+             COUNT(*) AS marcas
+      FROM asistencia a
+      LEFT JOIN movimiento m ON m.id_movimiento = a.id_movimiento
+      WHERE a.id_personal IS NOT NULL AND a.fecha IS NOT NULL
+      GROUP BY a.id_personal, substr(a.fecha, 1, 10));
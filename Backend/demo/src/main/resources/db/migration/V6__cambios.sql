@@ -0,0 +1,97 @@
+-- Registro de cambios para la sincronización incremental (GET /api/sync).
+-- Cada alta, modificación o baja de asistencia, autorizacion, personal y
+-- usuario deja, por trigger y en la misma transacción, una fila con el
+-- siguiente número de secuencia. Sólo se conserva el último cambio de cada
+-- registro; las bajas quedan como lápida (eliminado = 1). id_personal e
+-- id_usuario identifican al dueño para filtrar lo que cada usuario puede ver.
+CREATE TABLE IF NOT EXISTS cambio (
+    seq integer PRIMARY KEY AUTOINCREMENT,
+    entidad varchar(20) NOT NULL,
+    id_entidad integer NOT NULL,
+    eliminado integer NOT NULL DEFAULT 0,
+    id_personal integer,
+    id_usuario integer
+);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cambio_entidad ON cambio (entidad, id_entidad);
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_asistencia_insert AFTER INSERT ON asistencia
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('asistencia', NEW.id_asistencia, 0, NEW.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_asistencia_update AFTER UPDATE ON asistencia
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('asistencia', NEW.id_asistencia, 0, NEW.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_asistencia_delete AFTER DELETE ON asistencia
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('asistencia', OLD.id_asistencia, 1, OLD.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_autorizacion_insert AFTER INSERT ON autorizacion
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('autorizacion', NEW.id_autorizacion, 0, NULL, NEW.id_usuario);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_autorizacion_update AFTER UPDATE ON autorizacion
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('autorizacion', NEW.id_autorizacion, 0, NULL, NEW.id_usuario);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_autorizacion_delete AFTER DELETE ON autorizacion
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('autorizacion', OLD.id_autorizacion, 1, NULL, OLD.id_usuario);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_personal_insert AFTER INSERT ON personal
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('personal', NEW.id_personal, 0, NEW.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_personal_update AFTER UPDATE ON personal
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('personal', NEW.id_personal, 0, NEW.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_personal_delete AFTER DELETE ON personal
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('personal', OLD.id_personal, 1, OLD.id_personal, NULL);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_usuario_insert AFTER INSERT ON usuario
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('usuario', NEW.id_usuario, 0, NEW.id_personal, NEW.id_usuario);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_usuario_update AFTER UPDATE ON usuario
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('usuario', NEW.id_usuario, 0, NEW.id_personal, NEW.id_usuario);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_cambio_usuario_delete AFTER DELETE ON usuario
+BEGIN
+    INSERT OR REPLACE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+    VALUES ('usuario', OLD.id_usuario, 1, OLD.id_personal, OLD.id_usuario);
+END;
+
+-- Los registros existentes entran como altas para la primera sincronización
+INSERT OR IGNORE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+SELECT 'asistencia', id_asistencia, 0, id_personal, NULL FROM asistencia ORDER BY id_asistencia;
+INSERT OR IGNORE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+SELECT 'autorizacion', id_autorizacion, 0, NULL, id_usuario FROM autorizacion ORDER BY id_autorizacion;
+INSERT OR IGNORE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+SELECT 'personal', id_personal, 0, id_personal, NULL FROM personal ORDER BY id_personal;
+INSERT OR IGNORE INTO cambio (entidad, id_entidad, eliminado, id_personal, id_usuario)
+SELECT 'usuario', id_usuario, 0, id_personal, id_usuario FROM usuario ORDER BY id_usuario;
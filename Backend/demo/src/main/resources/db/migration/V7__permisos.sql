@@ -0,0 +1,8 @@
+-- Capacidades de cada cargo y rol como máscara de bits (ver Permiso). El token
+-- lleva la unión de ambas y cada chequeo es una prueba de bit. Se conserva el
+-- comportamiento anterior: sólo el cargo "Administrador de Sistemas" tiene
+-- todas (255); el resto de cargos y todos los roles empiezan sin ninguna.
+ALTER TABLE cargo ADD COLUMN permisos integer NOT NULL DEFAULT 0;
+ALTER TABLE rol ADD COLUMN permisos integer NOT NULL DEFAULT 0;
+
+UPDATE cargo SET permisos = 255 WHERE descripcion = 'Administrador de Sistemas';
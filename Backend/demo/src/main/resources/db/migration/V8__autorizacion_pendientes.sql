@@ -0,0 +1,13 @@
+-- Cola de autorizaciones pendientes (GET /api/autorizacion/pendientes): el
+-- filtro por estado y el orden por fecha_solicitud salen del mismo índice, y
+-- como id_autorizacion es el rowid, cada entrada ya lo lleva como desempate
+-- del cursor. Reemplaza a idx_autorizacion_estado, que es su prefijo.
+DROP INDEX IF EXISTS idx_autorizacion_estado;
+CREATE INDEX IF NOT EXISTS idx_autorizacion_estado_fecha ON autorizacion (estado, fecha_solicitud);
+
+-- La app muestra estado NULL como PENDIENTE; se normaliza para que la cola no
+-- dependa de un IS NULL. Las pendientes sin fecha de solicitud toman la fecha
+-- mínima y quedan al frente de la cola.
+UPDATE autorizacion SET estado = 'PENDIENTE' WHERE estado IS NULL;
+UPDATE autorizacion SET fecha_solicitud = '0001-01-01 00:00:00'
+WHERE estado = 'PENDIENTE' AND fecha_solicitud IS NULL;
@@ -0,0 +1,100 @@
+package com.utp.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Códigos de error por HTTP real. MockMvc no hace el dispatch ERROR del
+ * contenedor, así que sólo aquí se ve si la cadena de seguridad lo deja
+ * pasar: un 404/409 de un request autorizado debe llegar tal cual, y un
+ * request sin token debe seguir recibiendo 403.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SecurityConfigTests {
+
+    private static final Path BASE = baseTemporal();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    void elErrorDeUnRequestAutorizadoConservaSuCodigo() throws Exception {
+        HttpResponse<String> respuesta = enviar("PUT", "/api/autorizacion/999999/aprobar", token("admin"));
+
+        assertThat(respuesta.statusCode()).isEqualTo(404);
+        JsonNode cuerpo = objectMapper.readTree(respuesta.body());
+        assertThat(cuerpo.path("status").asInt()).isEqualTo(404);
+        assertThat(cuerpo.path("path").asText()).isEqualTo("/api/autorizacion/999999/aprobar");
+    }
+
+    @Test
+    void sinPermisoSigueSiendo403() throws Exception {
+        HttpResponse<String> respuesta = enviar("PUT", "/api/autorizacion/999999/aprobar", token("empleado"));
+
+        assertThat(respuesta.statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    void sinTokenSigueSiendo403() throws Exception {
+        assertThat(enviar("GET", "/api/autorizacion", null).statusCode()).isEqualTo(403);
+        assertThat(enviar("PUT", "/api/autorizacion/999999/aprobar", null).statusCode()).isEqualTo(403);
+        // La página de error tampoco queda expuesta a quien la pida directo
+        assertThat(enviar("GET", "/error", null).statusCode()).isEqualTo(403);
+    }
+
+    private HttpResponse<String> enviar(String metodo, String ruta, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .method(metodo, HttpRequest.BodyPublishers.noBody());
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return cliente.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String token(String usuario) {
+        return jwtService.generateToken(usuarioRepo.findByUsuario(usuario));
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("security-tests").resolve("security.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.utp.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una base anterior a V4 con nombres de usuario repetidos debe migrar igual:
+ * el callback renombra los repetidos antes de crear el índice único.
+ */
+class UsuariosDuplicadosCallbackTests {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void migraUnaBaseConUsuariosRepetidos() throws Exception {
+        String url = "jdbc:sqlite:" + directorio.resolve("duplicados.sqlite");
+
+        flyway(url).target("3").load().migrate();
+        try (Connection c = DriverManager.getConnection(url); Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO usuario (id_usuario, usuario) VALUES "
+                    + "(1, 'ana'), (2, 'luis'), (3, 'ana'), (4, 'ana'), (5, NULL), (6, NULL)");
+        }
+
+        flyway(url).load().migrate();
+
+        List<String> usuarios = new ArrayList<>();
+        try (Connection c = DriverManager.getConnection(url); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT usuario FROM usuario ORDER BY id_usuario")) {
+            while (rs.next()) {
+                usuarios.add(rs.getString(1));
+            }
+        }
+        assertThat(usuarios).containsExactly("ana", "luis", "ana#3", "ana#4", null, null);
+    }
+
+    private static FluentConfiguration flyway(String url) {
+        return Flyway.configure()
+                .dataSource(url, null, null)
+                .locations("classpath:db/migration")
+                .callbacks(new UsuariosDuplicadosCallback());
+    }
+}
@@ -0,0 +1,210 @@
+package com.utp.controller;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Movimiento;
+import com.utp.model.Usuario;
+import com.utp.repository.AsistenciaRepository;
+import com.utp.repository.AutorizacionRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.AsistenciaLoteService;
+import com.utp.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cuenta las sentencias SQL de los listados de asistencia: deben ser una por
+ * request sin importar cuántas filas, personal o autorizaciones haya, y
+ * ninguna cuando el ETag del cliente sigue vigente.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsistenciaControllerTests {
+
+    private static final int MARCAS = 300;
+    private static final Path BASE = baseTemporal();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepo;
+
+    @Autowired
+    private AutorizacionRepository autorizacionRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private AsistenciaLoteService loteService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void cargarDatos() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (asistenciaRepo.count() > 0) {
+            return;
+        }
+
+        Usuario admin = usuarioRepo.findByUsuario("admin");
+        Usuario empleado = usuarioRepo.findByUsuario("empleado");
+
+        Autorizacion autorizacion = new Autorizacion();
+        autorizacion.setMovimiento(movimiento(1));
+        autorizacion.setUsuarioSolicita(empleado);
+        autorizacion.setUsuarioAutoriza(admin);
+        autorizacion.setEstado("APROBADO");
+        autorizacion.setFechaSolicitud(LocalDateTime.of(2025, 11, 3, 8, 0));
+        autorizacionRepo.save(autorizacion);
+
+        List<Asistencia> marcas = new ArrayList<>();
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 3, 8, 0);
+        for (int i = 0; i < MARCAS; i++) {
+            Asistencia a = new Asistencia();
+            a.setPersonal(i % 2 == 0 ? admin.getPersonal() : empleado.getPersonal());
+            a.setMovimiento(movimiento(i % 4 + 1));
+            a.setAutorizacion(i % 10 == 0 ? autorizacion : null);
+            a.setFecha(inicio.plusMinutes(i * 7L));
+            a.setIpMarcador("127.0.0.1");
+            marcas.add(a);
+        }
+        loteService.insertar(marcas);
+    }
+
+    @Test
+    void listarComoAdminUsaUnaSolaConsulta() throws Exception {
+        String token = token("admin");
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/asistencia").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MARCAS))
+                .andExpect(jsonPath("$[0].autorizacion.usuarioSolicita.personal.cargo.descripcion").exists());
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listarComoEmpleadoUsaUnaSolaConsulta() throws Exception {
+        String token = token("empleado");
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/asistencia").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MARCAS / 2));
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void paginaUsaUnaSolaConsulta() throws Exception {
+        String token = token("admin");
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/asistencia/pagina").param("tamanio", "100")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(100))
+                .andExpect(jsonPath("$.siguienteCursor").isNotEmpty());
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listadoSinCambiosRespondeNoModificadoSinConsultar() throws Exception {
+        String token = token("admin");
+
+        String etag = mockMvc.perform(get("/api/asistencia").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/asistencia").header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        Asistencia nueva = new Asistencia();
+        nueva.setPersonal(usuarioRepo.findByUsuario("empleado").getPersonal());
+        nueva.setMovimiento(movimiento(1));
+        nueva.setFecha(LocalDateTime.of(2025, 12, 1, 8, 0));
+        loteService.insertar(new ArrayList<>(List.of(nueva)));
+
+        mockMvc.perform(get("/api/asistencia").header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        loteService.eliminar(List.of(nueva.getIdAsistencia()));
+    }
+
+    @Test
+    void marcaSinPersonalResponde400AunParaQuienGestiona() throws Exception {
+        long antes = asistenciaRepo.count();
+
+        for (String cuerpo : List.of("{\"movimiento\":{\"idMovimiento\":1},\"fecha\":\"2025-12-01T08:00:00\"}",
+                "{\"personal\":{},\"movimiento\":{\"idMovimiento\":1},\"fecha\":\"2025-12-01T08:00:00\"}")) {
+            mockMvc.perform(post("/api/asistencia").header("Authorization", "Bearer " + token("admin"))
+                            .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                    .andExpect(status().isBadRequest());
+        }
+
+        assertThat(asistenciaRepo.count()).isEqualTo(antes);
+    }
+
+    private String token(String usuario) {
+        return jwtService.generateToken(usuarioRepo.findByUsuario(usuario));
+    }
+
+    private static Movimiento movimiento(int id) {
+        Movimiento m = new Movimiento();
+        m.setIdMovimiento(id);
+        return m;
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("asistencia-tests").resolve("asistencia.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
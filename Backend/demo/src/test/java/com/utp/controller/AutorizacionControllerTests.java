@@ -0,0 +1,327 @@
+package com.utp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.model.Autorizacion;
+import com.utp.model.Usuario;
+import com.utp.repository.AutorizacionRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cola de autorizaciones pendientes (cursor keyset), resolución en bloque y
+ * transiciones compare-and-set de a una, sobre una base temporal que cada
+ * test deja sin autorizaciones al empezar.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutorizacionControllerTests {
+
+    private static final Path BASE = baseTemporal();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AutorizacionRepository autorizacionRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String tokenAdmin;
+
+    @BeforeEach
+    void limpiar() {
+        autorizacionRepo.deleteAll();
+        tokenAdmin = token("admin");
+    }
+
+    @Test
+    void recorrerLasPaginasNoRepiteNiSaltaPendientes() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2025, 11, 3, 8, 0);
+        List<Integer> esperadas = new ArrayList<>();
+        // Dos pares con la misma fecha: el desempate por id cae justo en el borde de página
+        esperadas.add(pendiente(base).getIdAutorizacion());
+        esperadas.add(pendiente(base.plusMinutes(1)).getIdAutorizacion());
+        esperadas.add(pendiente(base.plusMinutes(1)).getIdAutorizacion());
+        esperadas.add(pendiente(base.plusMinutes(2)).getIdAutorizacion());
+        esperadas.add(pendiente(base.plusMinutes(2)).getIdAutorizacion());
+        Autorizacion resuelta = pendiente(base.plusMinutes(1));
+        resuelta.setEstado(Autorizacion.APROBADO);
+        autorizacionRepo.save(resuelta);
+
+        List<Integer> vistas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            var pedido = get("/api/autorizacion/pendientes").param("tamanio", "2")
+                    .header("Authorization", "Bearer " + tokenAdmin);
+            if (cursor != null) {
+                pedido.param("cursor", cursor);
+            }
+            JsonNode pagina = json(mockMvc.perform(pedido)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pendientes").value(5))
+                    .andReturn().getResponse().getContentAsString());
+            pagina.get("items").forEach(item -> vistas.add(item.get("idAutorizacion").asInt()));
+            cursor = pagina.get("siguienteCursor").isNull() ? null : pagina.get("siguienteCursor").asText();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(vistas).containsExactlyElementsOf(esperadas);
+        assertThat(paginas).isEqualTo(3);
+    }
+
+    @Test
+    void lasPendientesSinFechaDeV8VanPrimero() throws Exception {
+        pendiente(LocalDateTime.of(2025, 11, 3, 8, 0));
+        Autorizacion sinFecha = pendiente(LocalDateTime.of(1, 1, 1, 0, 0));
+
+        mockMvc.perform(get("/api/autorizacion/pendientes").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].idAutorizacion").value(sinFecha.getIdAutorizacion()))
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void cursorMalFormadoResponde400() throws Exception {
+        mockMvc.perform(get("/api/autorizacion/pendientes").param("cursor", "no-es-un-cursor")
+                        .header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loteSeparaResueltasDeOmitidas() throws Exception {
+        Integer a = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+        Integer b = pendiente(LocalDateTime.of(2025, 11, 3, 8, 1)).getIdAutorizacion();
+        Autorizacion yaResuelta = pendiente(LocalDateTime.of(2025, 11, 3, 8, 2));
+        yaResuelta.setEstado(Autorizacion.RECHAZADO);
+        autorizacionRepo.save(yaResuelta);
+        Integer c = yaResuelta.getIdAutorizacion();
+
+        String cuerpo = "[" + b + ", null, 999999, " + c + ", " + a + ", " + b + "]";
+        mockMvc.perform(post("/api/autorizacion/lote/aprobar").contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo).header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value(Autorizacion.APROBADO))
+                .andExpect(jsonPath("$.resueltas").value(contains(b, a)))
+                .andExpect(jsonPath("$.omitidas").value(contains(999999, c)));
+
+        assertThat(autorizacionRepo.findById(a).orElseThrow().getEstado()).isEqualTo(Autorizacion.APROBADO);
+        assertThat(autorizacionRepo.findById(c).orElseThrow().getEstado()).isEqualTo(Autorizacion.RECHAZADO);
+
+        // Repetir el lote ya no resuelve nada
+        mockMvc.perform(post("/api/autorizacion/lote/rechazar").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + a + ", " + b + "]").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resueltas").isEmpty())
+                .andExpect(jsonPath("$.omitidas.length()").value(2));
+    }
+
+    @Test
+    void loteDeMasDeMilResponde400() throws Exception {
+        String cuerpo = objectMapper.writeValueAsString(Collections.nCopies(1001, 1));
+        mockMvc.perform(post("/api/autorizacion/lote/aprobar").contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo).header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void aprobarDosVecesResponde409() throws Exception {
+        Integer id = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+
+        mockMvc.perform(put("/api/autorizacion/" + id + "/aprobar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value(Autorizacion.APROBADO))
+                .andExpect(jsonPath("$.usuarioAutoriza.usuario").value("admin"));
+        mockMvc.perform(put("/api/autorizacion/" + id + "/aprobar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/autorizacion/" + id + "/rechazar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isConflict());
+
+        assertThat(autorizacionRepo.findById(id).orElseThrow().getEstado()).isEqualTo(Autorizacion.APROBADO);
+    }
+
+    @Test
+    void resolverUnaInexistenteResponde404() throws Exception {
+        mockMvc.perform(put("/api/autorizacion/999999/aprobar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/autorizacion/999999/rechazar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void empleadoNoPuedeResolver() throws Exception {
+        Integer id = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+        String tokenEmpleado = token("empleado");
+
+        mockMvc.perform(put("/api/autorizacion/" + id + "/aprobar").header("Authorization", "Bearer " + tokenEmpleado))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/autorizacion/lote/rechazar").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + id + "]").header("Authorization", "Bearer " + tokenEmpleado))
+                .andExpect(status().isForbidden());
+
+        assertThat(autorizacionRepo.findById(id).orElseThrow().getEstado()).isEqualTo(Autorizacion.PENDIENTE);
+    }
+
+    @Test
+    void resolucionesConcurrentesTienenUnSoloGanador() throws Exception {
+        Integer id = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+        int intentos = 12;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(intentos);
+        try {
+            List<Future<Integer>> estados = new ArrayList<>();
+            for (int i = 0; i < intentos; i++) {
+                String accion = i % 2 == 0 ? "aprobar" : "rechazar";
+                estados.add(hilos.submit(() -> {
+                    largada.await();
+                    return mockMvc.perform(put("/api/autorizacion/" + id + "/" + accion)
+                                    .header("Authorization", "Bearer " + tokenAdmin))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            largada.countDown();
+
+            List<Integer> codigos = new ArrayList<>();
+            for (Future<Integer> estado : estados) {
+                codigos.add(estado.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(codigos).filteredOn(c -> c == 200).hasSize(1);
+            assertThat(codigos).filteredOn(c -> c == 409).hasSize(intentos - 1);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolverCambiaElEtagDelListado() throws Exception {
+        Integer id = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+        String tokenEmpleado = token("empleado");
+
+        String etagAdmin = etag(tokenAdmin);
+        String etagEmpleado = etag(tokenEmpleado);
+        mockMvc.perform(get("/api/autorizacion").header("Authorization", "Bearer " + tokenAdmin)
+                        .header("If-None-Match", etagAdmin))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/autorizacion/" + id + "/aprobar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk());
+
+        // El UPDATE no pasa por Hibernate: la versión la avisa AutorizacionService
+        mockMvc.perform(get("/api/autorizacion").header("Authorization", "Bearer " + tokenAdmin)
+                        .header("If-None-Match", etagAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].estado").value(Autorizacion.APROBADO));
+        mockMvc.perform(get("/api/autorizacion").header("Authorization", "Bearer " + tokenEmpleado)
+                        .header("If-None-Match", etagEmpleado))
+                .andExpect(status().isOk());
+        assertThat(etag(tokenAdmin)).isNotEqualTo(etagAdmin);
+    }
+
+    @Test
+    void quienNoResuelveSoloCreaPendientes() throws Exception {
+        Usuario empleado = usuarioRepo.findByUsuario("empleado");
+        Usuario admin = usuarioRepo.findByUsuario("admin");
+        Integer existente = pendiente(LocalDateTime.of(2025, 11, 3, 8, 0)).getIdAutorizacion();
+        String cuerpo = """
+                {"idAutorizacion": %d, "usuarioSolicita": {"idUsuario": %d},
+                 "usuarioAutoriza": {"idUsuario": %d}, "estado": "APROBADO",
+                 "fechaAprobacion": "2025-11-03T09:00:00", "descripcion": "permiso"}
+                """.formatted(existente, empleado.getIdUsuario(), admin.getIdUsuario());
+
+        JsonNode creada = json(mockMvc.perform(post("/api/autorizacion").contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo).header("Authorization", "Bearer " + token("empleado")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value(Autorizacion.PENDIENTE))
+                .andReturn().getResponse().getContentAsString());
+        Integer id = creada.get("idAutorizacion").asInt();
+        assertThat(id).isNotEqualTo(existente);
+
+        Autorizacion guardada = autorizacionRepo.findById(id).orElseThrow();
+        assertThat(guardada.getEstado()).isEqualTo(Autorizacion.PENDIENTE);
+        assertThat(guardada.getUsuarioAutoriza()).isNull();
+        assertThat(guardada.getFechaAprobacion()).isNull();
+        assertThat(guardada.getFechaSolicitud()).isNotNull();
+        assertThat(autorizacionRepo.findById(existente).orElseThrow().getDescripcion()).isNull();
+
+        // La nueva entra en la cola y se resuelve por el CAS como cualquier otra
+        mockMvc.perform(get("/api/autorizacion/pendientes").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(jsonPath("$.pendientes").value(2));
+        mockMvc.perform(put("/api/autorizacion/" + id + "/aprobar").header("Authorization", "Bearer " + tokenAdmin))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String token) throws Exception {
+        return mockMvc.perform(get("/api/autorizacion").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private Autorizacion pendiente(LocalDateTime fechaSolicitud) {
+        Autorizacion a = new Autorizacion();
+        a.setUsuarioSolicita(usuarioRepo.findByUsuario("empleado"));
+        a.setEstado(Autorizacion.PENDIENTE);
+        a.setFechaSolicitud(fechaSolicitud);
+        return autorizacionRepo.save(a);
+    }
+
+    private String token(String usuario) {
+        Usuario u = usuarioRepo.findByUsuario(usuario);
+        return jwtService.generateToken(u);
+    }
+
+    private JsonNode json(String texto) throws IOException {
+        return objectMapper.readTree(texto);
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("autorizacion-tests").resolve("autorizacion.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.utp.controller;
+
+import com.utp.model.Cargo;
+import com.utp.model.Rol;
+import com.utp.repository.CargoRepository;
+import com.utp.repository.RolRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Escritura de los catálogos de cargo y rol, que se leen desde la caché y
+ * llevan los permisos de cada usuario, sobre una base temporal con los datos
+ * de DataInitializer.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CargoControllerTests {
+
+    private static final Path BASE = baseTemporal();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CargoRepository cargoRepo;
+
+    @Autowired
+    private RolRepository rolRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String tokenAdmin;
+
+    @BeforeEach
+    void token() {
+        tokenAdmin = jwtService.generateToken(usuarioRepo.findByUsuario("admin"));
+    }
+
+    @Test
+    void actualizarNoModificaLaInstanciaCacheada() throws Exception {
+        Cargo cacheado = cargoRepo.findById(cargoRepo.findByDescripcion("Empleado de Planta").getIdCargo())
+                .orElseThrow();
+        String descripcion = cacheado.getDescripcion();
+        int permisos = cacheado.getPermisos();
+
+        mockMvc.perform(put("/api/cargo/" + cacheado.getIdCargo()).header("Authorization", "Bearer " + tokenAdmin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descripcion\":\"Operario\",\"estado\":\"INACTIVO\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.descripcion").value("Operario"));
+
+        assertThat(cacheado.getDescripcion()).isEqualTo(descripcion);
+        Cargo releido = cargoRepo.findById(cacheado.getIdCargo()).orElseThrow();
+        assertThat(releido).isNotSameAs(cacheado);
+        assertThat(releido.getDescripcion()).isEqualTo("Operario");
+        assertThat(releido.getPermisos()).isEqualTo(permisos);
+
+        Cargo original = cargoRepo.findByIdCargo(cacheado.getIdCargo()).orElseThrow();
+        original.setDescripcion(descripcion);
+        original.setEstado(cacheado.getEstado());
+        cargoRepo.save(original);
+    }
+
+    @Test
+    void actualizarRolNoModificaLaInstanciaCacheada() throws Exception {
+        Rol cacheado = rolRepo.findById(rolRepo.findByDescripcion("Empleado").getIdRol()).orElseThrow();
+        int permisos = cacheado.getPermisos();
+
+        mockMvc.perform(put("/api/rol/" + cacheado.getIdRol()).header("Authorization", "Bearer " + tokenAdmin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descripcion\":\"Empleado\",\"estado\":\"INACTIVO\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(cacheado.getEstado()).isNotEqualTo("INACTIVO");
+        Rol releido = rolRepo.findById(cacheado.getIdRol()).orElseThrow();
+        assertThat(releido.getEstado()).isEqualTo("INACTIVO");
+        assertThat(releido.getPermisos()).isEqualTo(permisos);
+
+        Rol original = rolRepo.findByIdRol(cacheado.getIdRol()).orElseThrow();
+        original.setEstado(cacheado.getEstado());
+        rolRepo.save(original);
+    }
+
+    @Test
+    void crearConUnIdExistenteCreaOtroCargo() throws Exception {
+        Cargo admin = cargoRepo.findByIdCargo(
+                cargoRepo.findByDescripcion("Administrador de Sistemas").getIdCargo()).orElseThrow();
+
+        mockMvc.perform(post("/api/cargo").header("Authorization", "Bearer " + tokenAdmin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"idCargo\":" + admin.getIdCargo() + ",\"descripcion\":\"Supervisor\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idCargo").value(not(admin.getIdCargo())));
+
+        Cargo releido = cargoRepo.findByIdCargo(admin.getIdCargo()).orElseThrow();
+        assertThat(releido.getDescripcion()).isEqualTo("Administrador de Sistemas");
+        assertThat(releido.getPermisos()).isEqualTo(admin.getPermisos()).isNotZero();
+
+        cargoRepo.deleteById(cargoRepo.findByDescripcion("Supervisor").getIdCargo());
+    }
+
+    @Test
+    void crearConUnIdExistenteCreaOtroRol() throws Exception {
+        Rol admin = rolRepo.findByIdRol(
+                rolRepo.findByDescripcion("Administrador de Sistemas").getIdRol()).orElseThrow();
+
+        mockMvc.perform(post("/api/rol").header("Authorization", "Bearer " + tokenAdmin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"idRol\":" + admin.getIdRol() + ",\"descripcion\":\"Auditor\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idRol").value(not(admin.getIdRol())));
+
+        Rol releido = rolRepo.findByIdRol(admin.getIdRol()).orElseThrow();
+        assertThat(releido.getDescripcion()).isEqualTo("Administrador de Sistemas");
+        assertThat(releido.getPermisos()).isEqualTo(admin.getPermisos());
+
+        rolRepo.deleteById(rolRepo.findByDescripcion("Auditor").getIdRol());
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("cargo-tests").resolve("cargo.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.utp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.model.Asistencia;
+import com.utp.model.Movimiento;
+import com.utp.model.Personal;
+import com.utp.repository.AsistenciaRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.AsistenciaLoteService;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Descarga del historial (GET /api/asistencia/export) sobre una base temporal.
+ * Los bloques son de dos filas para que los empates de fecha caigan en el
+ * borde entre un bloque y el siguiente.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportacionAsistenciaTests {
+
+    private static final Path BASE = baseTemporal();
+    private static final String IP_CON_COMA = "10.0.0.1, \"proxy\"";
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+        registry.add("asistencia.exportacion.bloque", () -> "2");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private AsistenciaLoteService loteService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    // Ids en el orden (fecha, id) de la exportación
+    private final List<Integer> todas = new ArrayList<>();
+    private final List<Integer> delEmpleado = new ArrayList<>();
+
+    @BeforeEach
+    void cargarDatos() {
+        if (asistenciaRepo.count() == 0) {
+            Personal admin = usuarioRepo.findByUsuario("admin").getPersonal();
+            Personal empleado = usuarioRepo.findByUsuario("empleado").getPersonal();
+            LocalDateTime ocho = LocalDateTime.of(2025, 11, 3, 8, 0);
+            loteService.insertar(new ArrayList<>(List.of(
+                    marca(admin, ocho, "127.0.0.1"),
+                    marca(empleado, ocho, IP_CON_COMA),
+                    marca(admin, ocho, "127.0.0.1"),
+                    marca(empleado, ocho.plusHours(1), "127.0.0.2"),
+                    marca(admin, ocho.plusDays(1), "127.0.0.1"))));
+        }
+        todas.clear();
+        delEmpleado.clear();
+        Integer idEmpleado = usuarioRepo.findByUsuario("empleado").getPersonal().getIdPersonal();
+        asistenciaRepo.findAll().stream()
+                .sorted((a, b) -> a.getFecha().equals(b.getFecha())
+                        ? a.getIdAsistencia().compareTo(b.getIdAsistencia())
+                        : a.getFecha().compareTo(b.getFecha()))
+                .forEach(a -> {
+                    todas.add(a.getIdAsistencia());
+                    if (idEmpleado.equals(a.getPersonal().getIdPersonal())) {
+                        delEmpleado.add(a.getIdAsistencia());
+                    }
+                });
+    }
+
+    @Test
+    void csvRecorreLosBloquesSinRepetirYEntrecomilla() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/asistencia/export"), "admin");
+
+        assertThat(respuesta.getContentType()).startsWith("text/csv");
+        List<String> lineas = respuesta.getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lineas.get(0)).startsWith("idAsistencia,fecha,ipMarcador,");
+        assertThat(lineas.subList(1, lineas.size()))
+                .extracting(linea -> Integer.valueOf(linea.substring(0, linea.indexOf(','))))
+                .containsExactlyElementsOf(todas);
+        assertThat(lineas).anySatisfy(linea -> assertThat(linea).contains(",\"10.0.0.1, \"\"proxy\"\"\","));
+    }
+
+    @Test
+    void ndjsonEscribeUnObjetoPorLinea() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/asistencia/export").param("format", "ndjson"), "admin");
+
+        assertThat(respuesta.getContentType()).isEqualTo("application/x-ndjson");
+        List<JsonNode> filas = new ArrayList<>();
+        for (String linea : respuesta.getContentAsString(StandardCharsets.UTF_8).lines().toList()) {
+            filas.add(objectMapper.readTree(linea));
+        }
+        assertThat(filas).extracting(f -> f.get("idAsistencia").asInt()).containsExactlyElementsOf(todas);
+        assertThat(filas).extracting(f -> f.get("ipMarcador").asText()).contains(IP_CON_COMA);
+    }
+
+    @Test
+    void gzipComprimeLaMismaSalida() throws Exception {
+        String plano = exportar(get("/api/asistencia/export"), "admin").getContentAsString(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse respuesta = exportar(get("/api/asistencia/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"), "admin");
+
+        assertThat(respuesta.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(respuesta.getContentAsByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plano);
+        }
+    }
+
+    @Test
+    void elEmpleadoSoloExportaSusMarcas() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/asistencia/export").param("format", "ndjson"),
+                "empleado");
+
+        List<Integer> ids = new ArrayList<>();
+        for (String linea : respuesta.getContentAsString(StandardCharsets.UTF_8).lines().toList()) {
+            ids.add(objectMapper.readTree(linea).get("idAsistencia").asInt());
+        }
+        assertThat(ids).isNotEmpty().containsExactlyElementsOf(delEmpleado);
+    }
+
+    @Test
+    void elRangoDeFechasIncluyeElDiaHasta() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/asistencia/export")
+                .param("desde", "2025-11-03").param("hasta", "2025-11-03"), "admin");
+
+        assertThat(respuesta.getContentAsString(StandardCharsets.UTF_8).lines().count() - 1)
+                .isEqualTo(todas.size() - 1);
+    }
+
+    private MockHttpServletResponse exportar(MockHttpServletRequestBuilder pedido, String usuario) throws Exception {
+        MvcResult iniciado = mockMvc.perform(pedido.header("Authorization", "Bearer " + token(usuario)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(iniciado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private String token(String usuario) {
+        return jwtService.generateToken(usuarioRepo.findByUsuario(usuario));
+    }
+
+    private static Asistencia marca(Personal personal, LocalDateTime fecha, String ip) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setIdMovimiento(1);
+        Asistencia a = new Asistencia();
+        a.setPersonal(personal);
+        a.setMovimiento(movimiento);
+        a.setFecha(fecha);
+        a.setIpMarcador(ip);
+        return a;
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("exportacion-tests").resolve("exportacion.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.utp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.model.Asistencia;
+import com.utp.model.Movimiento;
+import com.utp.model.Personal;
+import com.utp.model.Usuario;
+import com.utp.repository.AsistenciaRepository;
+import com.utp.repository.PersonalRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.AsistenciaLoteService;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/reportes/resumen contra artifacts/test_report.csv, generado por
+ * scripts/test_calcular_resumen.py el 2025-12-04. Las marcas de ejemplo del
+ * script entran por AsistenciaLoteService.insertar, así el resultado recorre
+ * el recálculo de asistencia_diaria, la consulta de ReporteService y el
+ * cálculo del resumen.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReporteControllerTests {
+
+    private static final Path BASE = baseTemporal();
+    private static final Path CSV_ESPERADO = Path.of("../../artifacts/test_report.csv");
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepo;
+
+    @Autowired
+    private PersonalRepository personalRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private AsistenciaLoteService loteService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @BeforeEach
+    void cargarDatos() {
+        if (asistenciaRepo.count() > 0) {
+            return;
+        }
+
+        Personal admin = personal("Admin", "Uno", "A001", "2025-10-01");
+        Personal empleado = personal("Empleado", "Dos", "E002", "2025-09-01");
+        personal("Nuevo", "Tres", "N003", "2025-12-03");
+
+        loteService.insertar(new ArrayList<>(List.of(
+                marca(admin, 1, "2025-11-10T08:05:00"),
+                marca(admin, 2, "2025-11-10T17:00:00"),
+                marca(admin, 1, "2025-11-11T08:20:00"),
+                marca(admin, 1, "2025-11-12T08:10:00"),
+                marca(empleado, 1, "2025-11-10T08:50:00"),
+                marca(empleado, 2, "2025-11-10T17:05:00"),
+                marca(empleado, 1, "2025-11-11T07:55:00"),
+                marca(empleado, 2, "2025-11-11T16:50:00"))));
+    }
+
+    @Test
+    void coincideConElReporteDeReferencia() throws Exception {
+        String cuerpo = mockMvc.perform(get("/api/reportes/resumen")
+                        .param("desde", "2025-10-01").param("hasta", "2025-12-04")
+                        .header("Authorization", "Bearer " + token("admin")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // El personal que crea DataInitializer también sale en el reporte; se comparan los del script
+        Map<String, JsonNode> porDocumento = new LinkedHashMap<>();
+        for (JsonNode fila : objectMapper.readTree(cuerpo)) {
+            porDocumento.put(fila.get("documento").asText(), fila);
+        }
+
+        List<String> esperado = Files.readAllLines(CSV_ESPERADO);
+        assertThat(esperado.get(0)).isEqualTo("Nombre,Documento,Asistencias,Demoras,Faltas,Descuento,UltimaMarca");
+        assertThat(esperado).hasSize(4);
+        for (String linea : esperado.subList(1, esperado.size())) {
+            String[] columnas = linea.split(",", -1);
+            JsonNode fila = porDocumento.get(columnas[1]);
+
+            assertThat(fila).as(columnas[1]).isNotNull();
+            assertThat(fila.get("nombre").asText()).isEqualTo(columnas[0]);
+            assertThat(fila.get("asistencias").asInt()).as(columnas[1]).isEqualTo(Integer.parseInt(columnas[2]));
+            assertThat(fila.get("demoras").asInt()).as(columnas[1]).isEqualTo(Integer.parseInt(columnas[3]));
+            assertThat(fila.get("faltas").asInt()).as(columnas[1]).isEqualTo(Integer.parseInt(columnas[4]));
+            assertThat(fila.get("descuento").asDouble()).as(columnas[1]).isEqualTo(Double.parseDouble(columnas[5]));
+            assertThat(fila.get("ultimaMarca").isNull() ? "" : fila.get("ultimaMarca").asText())
+                    .as(columnas[1]).isEqualTo(columnas[6]);
+        }
+    }
+
+    private Personal personal(String nombre, String apellPaterno, String documento, String creacion) {
+        Personal p = new Personal();
+        p.setNombre(nombre);
+        p.setApellPaterno(apellPaterno);
+        p.setApellMaterno("");
+        p.setNroDocumento(documento);
+        p = personalRepo.save(p);
+
+        Usuario u = new Usuario();
+        u.setUsuario(documento.toLowerCase());
+        u.setPersonal(p);
+        u.setFechaCreacion(LocalDate.parse(creacion));
+        usuarioRepo.save(u);
+        return p;
+    }
+
+    private String token(String usuario) {
+        return jwtService.generateToken(usuarioRepo.findByUsuario(usuario));
+    }
+
+    private static Asistencia marca(Personal personal, int idMovimiento, String fecha) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setIdMovimiento(idMovimiento);
+        Asistencia a = new Asistencia();
+        a.setPersonal(personal);
+        a.setMovimiento(movimiento);
+        a.setFecha(LocalDateTime.parse(fecha));
+        return a;
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("reporte-tests").resolve("reporte.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
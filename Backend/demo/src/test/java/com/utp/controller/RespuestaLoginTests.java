@@ -0,0 +1,76 @@
+package com.utp.controller;
+
+import com.utp.model.Usuario;
+import com.utp.service.JwtService;
+import com.utp.service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Las dos rutas de inicio de sesión, contra un UsuarioService simulado: ambas
+ * deben responder lo mismo.
+ */
+class RespuestaLoginTests {
+
+    private final UsuarioService usuarioService = mock(UsuarioService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+
+    private final List<Function<Usuario, CompletableFuture<ResponseEntity<?>>>> rutas = List.of(
+            new AuthController(usuarioService, jwtService)::login,
+            new UsuarioController(usuarioService, jwtService, null)::login);
+
+    @Test
+    void poolSaturadoResponde503ConRetryAfter() throws Exception {
+        when(usuarioService.autenticar(any(), any())).thenThrow(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Demasiados inicios de sesión en curso, reintente"));
+
+        for (var ruta : rutas) {
+            ResponseEntity<?> respuesta = ruta.apply(login("admin", "admin123")).get();
+            assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void credencialesInvalidasResponden401EnElCuerpo() throws Exception {
+        when(usuarioService.autenticar(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        for (var ruta : rutas) {
+            ResponseEntity<?> respuesta = ruta.apply(login("admin", "otra")).get();
+            assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+            assertThat(respuesta.getBody()).isEqualTo("Credenciales inválidas");
+        }
+    }
+
+    @Test
+    void credencialesValidasDevuelvenElToken() throws Exception {
+        Usuario usuario = login("admin", "admin123");
+        when(usuarioService.autenticar(any(), any())).thenReturn(CompletableFuture.completedFuture(usuario));
+        when(jwtService.generateToken(usuario)).thenReturn("token");
+
+        for (var ruta : rutas) {
+            ResponseEntity<?> respuesta = ruta.apply(login("admin", "admin123")).get();
+            assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(respuesta.getBody()).isEqualTo("token");
+        }
+    }
+
+    private static Usuario login(String usuario, String password) {
+        Usuario u = new Usuario();
+        u.setUsuario(usuario);
+        u.setPassword(password);
+        return u;
+    }
+}
@@ -0,0 +1,217 @@
+package com.utp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utp.model.Asistencia;
+import com.utp.model.Autorizacion;
+import com.utp.model.Movimiento;
+import com.utp.model.Usuario;
+import com.utp.repository.AutorizacionRepository;
+import com.utp.repository.UsuarioRepository;
+import com.utp.service.AsistenciaLoteService;
+import com.utp.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Contrato de GET /api/sync sobre una base temporal: los triggers de
+ * V6__cambios.sql registran altas, modificaciones y bajas, y cada usuario sólo
+ * recibe lo suyo. Cada test lee desde la última secuencia que dejó el
+ * anterior.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SyncControllerTests {
+
+    private static final Path BASE = baseTemporal();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + BASE);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AutorizacionRepository autorizacionRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private AsistenciaLoteService loteService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private Usuario admin;
+    private Usuario empleado;
+    private long inicio;
+
+    @BeforeEach
+    void ultimaSecuencia() {
+        admin = usuarioRepo.findByUsuario("admin");
+        empleado = usuarioRepo.findByUsuario("empleado");
+        inicio = ultimaSecuencia(jdbcTemplate);
+    }
+
+    @Test
+    void altaModificacionYBajaQuedanRegistradas() throws Exception {
+        Asistencia marca = marca(empleado, LocalDateTime.of(2025, 11, 3, 8, 0));
+
+        JsonNode alta = sync("admin", inicio, 1000);
+        assertThat(ids(alta, "asistencias", "idAsistencia")).containsExactly(marca.getIdAsistencia());
+        assertThat(alta.get("hasta").asLong()).isGreaterThan(inicio);
+
+        jdbcTemplate.update("UPDATE asistencia SET ip_marcador = '10.0.0.9' WHERE id_asistencia = ?",
+                marca.getIdAsistencia());
+        JsonNode modificacion = sync("admin", alta.get("hasta").asLong(), 1000);
+        assertThat(modificacion.get("asistencias")).hasSize(1);
+        assertThat(modificacion.get("asistencias").get(0).get("ipMarcador").asText()).isEqualTo("10.0.0.9");
+
+        loteService.eliminar(List.of(marca.getIdAsistencia()));
+        JsonNode baja = sync("admin", modificacion.get("hasta").asLong(), 1000);
+        assertThat(baja.get("asistencias")).isEmpty();
+        assertThat(baja.get("eliminados")).hasSize(1);
+        assertThat(baja.get("eliminados").get(0).get("entidad").asText()).isEqualTo("asistencia");
+        assertThat(baja.get("eliminados").get(0).get("id").asInt()).isEqualTo(marca.getIdAsistencia());
+
+        // Sólo queda el último cambio de cada registro: desde el principio se ve la lápida y nada más
+        JsonNode completo = sync("admin", inicio, 1000);
+        assertThat(completo.get("asistencias")).isEmpty();
+        assertThat(completo.get("eliminados")).hasSize(1);
+    }
+
+    @Test
+    void elEmpleadoSoloRecibeLoSuyo() throws Exception {
+        Asistencia deAdmin = marca(admin, LocalDateTime.of(2025, 11, 4, 8, 0));
+        Asistencia propia = marca(empleado, LocalDateTime.of(2025, 11, 4, 8, 5));
+        Autorizacion ajena = autorizacion(admin);
+        Autorizacion suya = autorizacion(empleado);
+        jdbcTemplate.update("UPDATE personal SET email = email");
+        jdbcTemplate.update("UPDATE usuario SET estado = estado");
+
+        JsonNode cambios = sync("empleado", inicio, 1000);
+
+        assertThat(ids(cambios, "asistencias", "idAsistencia")).containsExactly(propia.getIdAsistencia());
+        assertThat(ids(cambios, "autorizaciones", "idAutorizacion")).containsExactly(suya.getIdAutorizacion());
+        assertThat(ids(cambios, "personal", "idPersonal")).containsExactly(empleado.getPersonal().getIdPersonal());
+        assertThat(ids(cambios, "usuarios", "idUsuario")).containsExactly(empleado.getIdUsuario());
+
+        // Las bajas ajenas tampoco llegan
+        loteService.eliminar(List.of(deAdmin.getIdAsistencia()));
+        autorizacionRepo.deleteById(ajena.getIdAutorizacion());
+        assertThat(sync("empleado", cambios.get("hasta").asLong(), 1000).get("eliminados")).isEmpty();
+        assertThat(sync("admin", cambios.get("hasta").asLong(), 1000).get("eliminados")).hasSize(2);
+    }
+
+    @Test
+    void paginaDeAUnCambioSinRepetirNiSaltar() throws Exception {
+        List<Integer> esperadas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            esperadas.add(marca(empleado, LocalDateTime.of(2025, 11, 5, 8, i)).getIdAsistencia());
+            // Un cambio ajeno entre medio no debe ocupar una página del empleado
+            marca(admin, LocalDateTime.of(2025, 11, 5, 9, i));
+        }
+
+        List<Integer> vistas = new ArrayList<>();
+        List<Boolean> hayMas = new ArrayList<>();
+        long desde = inicio;
+        JsonNode pagina;
+        do {
+            pagina = sync("empleado", desde, 1);
+            vistas.addAll(ids(pagina, "asistencias", "idAsistencia"));
+            hayMas.add(pagina.get("hayMas").asBoolean());
+            assertThat(pagina.get("hasta").asLong()).isGreaterThan(desde);
+            desde = pagina.get("hasta").asLong();
+        } while (pagina.get("hayMas").asBoolean());
+
+        assertThat(vistas).containsExactlyElementsOf(esperadas);
+        assertThat(hayMas).containsExactly(true, true, false);
+        assertThat(desde).isEqualTo(ultimaSecuencia(jdbcTemplate));
+    }
+
+    @Test
+    void hastaAvanzaSobreCambiosQueNoPuedeVer() throws Exception {
+        marca(admin, LocalDateTime.of(2025, 11, 6, 8, 0));
+        autorizacion(admin);
+
+        JsonNode cambios = sync("empleado", inicio, 1000);
+
+        assertThat(cambios.get("asistencias")).isEmpty();
+        assertThat(cambios.get("autorizaciones")).isEmpty();
+        assertThat(cambios.get("hayMas").asBoolean()).isFalse();
+        assertThat(cambios.get("hasta").asLong()).isEqualTo(ultimaSecuencia(jdbcTemplate)).isGreaterThan(inicio);
+    }
+
+    private JsonNode sync(String usuario, long since, int limite) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/sync")
+                        .param("since", String.valueOf(since)).param("limite", String.valueOf(limite))
+                        .header("Authorization", "Bearer " + jwtService.generateToken(usuarioRepo.findByUsuario(usuario))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<Integer> ids(JsonNode cambios, String lista, String campo) {
+        List<Integer> ids = new ArrayList<>();
+        cambios.get(lista).forEach(registro -> ids.add(registro.get(campo).asInt()));
+        return ids;
+    }
+
+    private Asistencia marca(Usuario dueno, LocalDateTime fecha) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setIdMovimiento(1);
+        Asistencia a = new Asistencia();
+        a.setPersonal(dueno.getPersonal());
+        a.setMovimiento(movimiento);
+        a.setFecha(fecha);
+        loteService.insertar(new ArrayList<>(List.of(a)));
+        return a;
+    }
+
+    private Autorizacion autorizacion(Usuario solicitante) {
+        Autorizacion a = new Autorizacion();
+        a.setUsuarioSolicita(solicitante);
+        a.setEstado(Autorizacion.PENDIENTE);
+        a.setFechaSolicitud(LocalDateTime.of(2025, 11, 3, 8, 0));
+        return autorizacionRepo.save(a);
+    }
+
+    private static long ultimaSecuencia(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM cambio", Long.class);
+    }
+
+    private static Path baseTemporal() {
+        try {
+            return Files.createTempDirectory("sync-tests").resolve("sync.sqlite");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
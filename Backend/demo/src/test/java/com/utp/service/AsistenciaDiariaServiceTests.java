@@ -0,0 +1,92 @@
+package com.utp.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reglas de tardanza de asistencia_diaria, las mismas que
+ * scripts/test_calcular_resumen.py: cuenta la primera marca de entrada del
+ * día (descripción con "entrada" o abreviatura ENT) o, si no hubo entrada, la
+ * primera marca; es tardanza si pasa de las 08:15. Se comprueban la carga
+ * inicial de V5 y reconstruir() sobre las mismas marcas.
+ */
+class AsistenciaDiariaServiceTests {
+
+    // Marcas de ejemplo del script (personal 1 y 2) y casos de borde (personal 4)
+    private static final String MARCAS = """
+            INSERT INTO asistencia (id_personal, id_movimiento, fecha) VALUES
+                (1, 1, '2025-11-10 08:05:00'), (1, 2, '2025-11-10 17:00:00'),
+                (1, 1, '2025-11-11 08:20:00'),
+                (1, 1, '2025-11-12 08:10:00'),
+                (2, 1, '2025-11-10 08:50:00'), (2, 2, '2025-11-10 17:05:00'),
+                (2, 1, '2025-11-11 07:55:00'), (2, 2, '2025-11-11 16:50:00'),
+                (4, 2, '2025-11-13 07:00:00'), (4, 1, '2025-11-13 08:20:00'),
+                (4, 2, '2025-11-14 08:30:00'),
+                (4, 1, '2025-11-17 08:15:00'),
+                (4, 3, '2025-11-18 08:00:00'), (4, 1, '2025-11-18 08:40:00')
+            """;
+
+    private static final Map<String, Boolean> TARDANZAS = new LinkedHashMap<>();
+
+    static {
+        TARDANZAS.put("1/2025-11-10", false);
+        TARDANZAS.put("1/2025-11-11", true);
+        TARDANZAS.put("1/2025-11-12", false);
+        TARDANZAS.put("2/2025-11-10", true);
+        TARDANZAS.put("2/2025-11-11", false);
+        // La entrada manda aunque haya una salida anterior ese día
+        TARDANZAS.put("4/2025-11-13", true);
+        // Sin entrada cuenta la primera marca
+        TARDANZAS.put("4/2025-11-14", true);
+        // 08:15 en punto no es tardanza
+        TARDANZAS.put("4/2025-11-17", false);
+        // "Entrada Break" también es una entrada
+        TARDANZAS.put("4/2025-11-18", false);
+    }
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void laCargaDeV5YReconstruirAplicanLasReglasDelScript() {
+        String url = "jdbc:sqlite:" + directorio.resolve("diaria.sqlite");
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+            Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+                    .target("4").load().migrate();
+            jdbc.update(MARCAS);
+            Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+            assertThat(tardanzas(jdbc)).containsExactlyEntriesOf(TARDANZAS);
+            assertThat(jdbc.queryForObject("SELECT minutos_trabajados FROM asistencia_diaria "
+                    + "WHERE id_personal = 1 AND fecha = '2025-11-10'", Integer.class)).isEqualTo(535);
+
+            int filas = new AsistenciaDiariaService(jdbc).reconstruir();
+
+            assertThat(filas).isEqualTo(TARDANZAS.size());
+            assertThat(tardanzas(jdbc)).containsExactlyEntriesOf(TARDANZAS);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static Map<String, Boolean> tardanzas(JdbcTemplate jdbc) {
+        Map<String, Boolean> tardanzas = new LinkedHashMap<>();
+        jdbc.query("SELECT id_personal, fecha, tardanza FROM asistencia_diaria ORDER BY id_personal, fecha",
+                rs -> {
+                    tardanzas.put(rs.getInt("id_personal") + "/" + rs.getString("fecha"), rs.getBoolean("tardanza"));
+                });
+        return tardanzas;
+    }
+}
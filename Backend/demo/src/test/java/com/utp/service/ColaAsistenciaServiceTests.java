@@ -0,0 +1,199 @@
+package com.utp.service;
+
+import com.utp.model.Asistencia;
+import com.utp.model.Personal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cola de escritura de marcas contra un AsistenciaLoteService falso que anota
+ * cada llamada a insertar, sin base de datos.
+ */
+class ColaAsistenciaServiceTests {
+
+    private final LoteFalso lote = new LoteFalso();
+    private ColaAsistenciaService cola;
+
+    @AfterEach
+    void detener() throws InterruptedException {
+        lote.liberar.countDown();
+        if (cola != null) {
+            cola.detener();
+        }
+    }
+
+    @Test
+    void unaTandaCompletaTodosLosFutures() throws Exception {
+        // El primer insertar se retiene para que las demás marcas se junten en una tanda
+        lote.retenerPrimera = true;
+        iniciar(5000);
+
+        CompletableFuture<Asistencia> primera = cola.encolar(marca("primera"));
+        assertThat(lote.entro.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Asistencia>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(cola.encolar(marca("m" + i)));
+        }
+        lote.liberar.countDown();
+
+        assertThat(primera.get(5, TimeUnit.SECONDS).getIpMarcador()).isEqualTo("primera");
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS).getIpMarcador()).isEqualTo("m" + i);
+        }
+        assertThat(lote.llamadas.get()).isEqualTo(2);
+        assertThat(lote.escritas).hasSize(21);
+    }
+
+    @Test
+    void laMarcaInvalidaSeAislaFilaPorFila() throws Exception {
+        lote.retenerPrimera = true;
+        iniciar(5000);
+
+        CompletableFuture<Asistencia> primera = cola.encolar(marca("primera"));
+        assertThat(lote.entro.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Asistencia> buena = cola.encolar(marca("buena"));
+        CompletableFuture<Asistencia> mala = cola.encolar(marca(LoteFalso.INVALIDA));
+        CompletableFuture<Asistencia> otra = cola.encolar(marca("otra"));
+        lote.liberar.countDown();
+
+        primera.get(5, TimeUnit.SECONDS);
+        assertThat(buena.get(5, TimeUnit.SECONDS).getIpMarcador()).isEqualTo("buena");
+        assertThat(otra.get(5, TimeUnit.SECONDS).getIpMarcador()).isEqualTo("otra");
+        assertThatThrownBy(() -> mala.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(lote.escritas).extracting(Asistencia::getIpMarcador)
+                .containsExactly("primera", "buena", "otra");
+    }
+
+    @Test
+    void unErrorNoDetieneAlEscritor() throws Exception {
+        iniciar(5000);
+
+        CompletableFuture<Asistencia> fatal = cola.encolar(marca(LoteFalso.FATAL));
+        assertThatThrownBy(() -> fatal.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AssertionError.class);
+
+        assertThat(cola.registrar(marca("despues")).getIpMarcador()).isEqualTo("despues");
+    }
+
+    @Test
+    void laMarcaVencidaNuncaSeEscribe() throws Exception {
+        lote.retenerPrimera = true;
+        iniciar(200);
+
+        // La primera la toma el escritor y queda retenida dentro de insertar
+        CompletableFuture<Asistencia> enCurso = CompletableFuture.supplyAsync(() -> cola.registrar(marca("en-curso")));
+        assertThat(lote.entro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // La segunda espera detrás de ella, vence y se retira de la cola
+        assertThatThrownBy(() -> cola.registrar(marca("vencida")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // La que ya estaba tomada no responde 503: espera su commit aunque pase el plazo
+        Thread.sleep(300);
+        assertThat(enCurso).isNotDone();
+        lote.liberar.countDown();
+        assertThat(enCurso.get(5, TimeUnit.SECONDS).getIpMarcador()).isEqualTo("en-curso");
+
+        cola.detener();
+        cola = null;
+        assertThat(lote.escritas).extracting(Asistencia::getIpMarcador).containsExactly("en-curso");
+    }
+
+    @Test
+    void laMarcaSinPersonalSeRechazaSinLlegarAlEscritor() throws Exception {
+        iniciar(5000);
+
+        Asistencia sinPersonal = marca("sin-personal");
+        sinPersonal.setPersonal(null);
+        Asistencia sinId = marca("sin-id");
+        sinId.setPersonal(new Personal());
+        for (Asistencia invalida : List.of(sinPersonal, sinId)) {
+            assertThatThrownBy(() -> cola.registrar(invalida))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            assertThatThrownBy(() -> cola.encolar(invalida)).isInstanceOf(ResponseStatusException.class);
+        }
+
+        assertThat(cola.registrar(marca("despues")).getIpMarcador()).isEqualTo("despues");
+        assertThat(lote.llamadas.get()).isEqualTo(1);
+        assertThat(lote.escritas).extracting(Asistencia::getIpMarcador).containsExactly("despues");
+    }
+
+    @Test
+    void elErrorDeEscrituraNoExponeSuMensaje() {
+        iniciar(5000);
+
+        assertThatThrownBy(() -> cola.registrar(marca(LoteFalso.INVALIDA)))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+                    assertThat(e.getReason()).isEqualTo("No se pudo registrar la marca");
+                });
+    }
+
+    private void iniciar(long esperaMaximaMs) {
+        cola = new ColaAsistenciaService(lote, 1000, 500, esperaMaximaMs);
+        cola.iniciar();
+    }
+
+    private static Asistencia marca(String ip) {
+        Personal personal = new Personal();
+        personal.setIdPersonal(1);
+        Asistencia a = new Asistencia();
+        a.setPersonal(personal);
+        a.setIpMarcador(ip);
+        return a;
+    }
+
+    private static final class LoteFalso extends AsistenciaLoteService {
+
+        static final String INVALIDA = "invalida";
+        static final String FATAL = "fatal";
+
+        final List<Asistencia> escritas = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger llamadas = new AtomicInteger();
+        final CountDownLatch entro = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+        volatile boolean retenerPrimera;
+
+        LoteFalso() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public void insertar(List<Asistencia> asistencias) {
+            if (llamadas.getAndIncrement() == 0 && retenerPrimera) {
+                entro.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (Asistencia a : asistencias) {
+                if (FATAL.equals(a.getIpMarcador())) {
+                    throw new AssertionError("falla fatal simulada");
+                }
+                if (INVALIDA.equals(a.getIpMarcador())) {
+                    throw new IllegalStateException("marca inválida simulada");
+                }
+            }
+            escritas.addAll(asistencias);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.utp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tope de conexiones de EventosService, sin servidor: los emitters no tienen
+ * handler y los envíos quedan en su buffer inicial.
+ */
+class EventosServiceTests {
+
+    private static final int MAXIMO = 5;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final EventosService eventos = new EventosService(registry, 16, MAXIMO, 60_000, 60_000);
+
+    @AfterEach
+    void detener() {
+        eventos.detener();
+    }
+
+    @Test
+    void suscripcionesSimultaneasNoPasanElTope() throws Exception {
+        int intentos = 40;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(intentos);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < intentos; i++) {
+                int id = i;
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    try {
+                        eventos.suscribir(principal(id));
+                        return true;
+                    } catch (ResponseStatusException e) {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            int aceptadas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(10, TimeUnit.SECONDS)) {
+                    aceptadas++;
+                }
+            }
+            assertThat(aceptadas).isEqualTo(MAXIMO);
+            assertThat(conectados()).isEqualTo(MAXIMO);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void cerrarDevuelveLosLugares() {
+        for (int i = 0; i < MAXIMO; i++) {
+            eventos.suscribir(principal(i));
+        }
+        assertThatThrownBy(() -> eventos.suscribir(principal(99)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(conectados()).isEqualTo(MAXIMO);
+
+        eventos.detener();
+        assertThat(conectados()).isZero();
+    }
+
+    private double conectados() {
+        return registry.get("eventos.suscriptores").gauge().value();
+    }
+
+    private static JwtPrincipal principal(int id) {
+        return new JwtPrincipal(id, "u" + id, null, null, null, 0, Instant.now().plus(1, ChronoUnit.HOURS));
+    }
+}
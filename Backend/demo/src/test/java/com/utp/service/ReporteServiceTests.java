@@ -0,0 +1,67 @@
+package com.utp.service;
+
+import com.utp.dto.ResumenAsistencia;
+import com.utp.dto.ResumenDia;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * calcular() sola, contra artifacts/test_report.csv: periodo por personal,
+ * días laborables, faltas y descuento a partir de filas de asistencia_diaria
+ * armadas a mano (la tardanza ya viene marcada). Las reglas de tardanza y la
+ * consulta se prueban con las marcas reales en AsistenciaDiariaServiceTests y
+ * ReporteControllerTests.
+ */
+class ReporteServiceTests {
+
+    private static final Path CSV_ESPERADO = Path.of("../../artifacts/test_report.csv");
+
+    @Test
+    void coincideConElReporteDeReferencia() throws Exception {
+        List<ResumenDia> filas = List.of(
+                dia(1, "Admin", "Uno", "A001", "2025-10-01", "2025-11-10",
+                        false, "2025-11-10 17:00:00"),
+                dia(1, "Admin", "Uno", "A001", "2025-10-01", "2025-11-11",
+                        true, "2025-11-11 08:20:00"),
+                dia(1, "Admin", "Uno", "A001", "2025-10-01", "2025-11-12",
+                        false, "2025-11-12 08:10:00"),
+                dia(2, "Empleado", "Dos", "E002", "2025-09-01", "2025-11-10",
+                        true, "2025-11-10 17:05:00"),
+                dia(2, "Empleado", "Dos", "E002", "2025-09-01", "2025-11-11",
+                        false, "2025-11-11 16:50:00"),
+                dia(3, "Nuevo", "Tres", "N003", "2025-12-03", null, false, null));
+
+        LocalDate hoy = LocalDate.of(2025, 12, 4);
+        List<ResumenAsistencia> resumen = new ReporteService(null)
+                .calcular(filas, LocalDate.of(2025, 10, 1), hoy, hoy);
+
+        List<String> esperado = Files.readAllLines(CSV_ESPERADO);
+        assertThat(esperado.get(0)).isEqualTo("Nombre,Documento,Asistencias,Demoras,Faltas,Descuento,UltimaMarca");
+        assertThat(resumen).hasSize(esperado.size() - 1);
+
+        for (int i = 0; i < resumen.size(); i++) {
+            String[] columnas = esperado.get(i + 1).split(",", -1);
+            ResumenAsistencia fila = resumen.get(i);
+
+            assertThat(fila.nombre()).isEqualTo(columnas[0]);
+            assertThat(fila.documento()).isEqualTo(columnas[1]);
+            assertThat(fila.asistencias()).isEqualTo(Integer.parseInt(columnas[2]));
+            assertThat(fila.demoras()).isEqualTo(Integer.parseInt(columnas[3]));
+            assertThat(fila.faltas()).isEqualTo(Integer.parseInt(columnas[4]));
+            assertThat(fila.descuento()).isEqualTo(Double.parseDouble(columnas[5]));
+            assertThat(fila.ultimaMarca() == null ? "" : fila.ultimaMarca()).isEqualTo(columnas[6]);
+        }
+    }
+
+    private ResumenDia dia(Integer idPersonal, String nombre, String apellPaterno, String documento,
+                           String fechaCreacion, String dia, boolean tardanza, String ultimaMarca) {
+        return new ResumenDia(idPersonal, nombre, apellPaterno, "", documento, LocalDate.parse(fechaCreacion),
+                dia != null ? LocalDate.parse(dia) : null, tardanza, ultimaMarca);
+    }
+}
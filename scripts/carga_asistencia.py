@@ -0,0 +1,142 @@
+#!/usr/bin/env python3
+"""Prueba de carga de marcas y reportes contra el backend.
+
+Cada cliente simulado repite, hasta terminar la duración, una marca
+(POST /api/asistencia) o, con probabilidad --reportes, un resumen de planilla
+(GET /api/reportes/resumen). Se mide por separado la latencia de cada tipo de
+request para cada nivel de concurrencia.
+
+Uso, con el backend ya levantado (hilos de plataforma o perfil "virtual"):
+
+    python3 scripts/carga_asistencia.py --concurrencia 50,200,800 --duracion 20
+    python3 scripts/carga_asistencia.py --sembrar 200000   # carga marcas antes
+"""
+import argparse
+import http.client
+import json
+import threading
+import time
+from datetime import datetime, timedelta
+from urllib.parse import urlparse
+
+
+def conectar(url):
+    u = urlparse(url)
+    return http.client.HTTPConnection(u.hostname, u.port or 80, timeout=60)
+
+
+def login(url, usuario, password):
+    c = conectar(url)
+    c.request("POST", "/api/auth/login", json.dumps({"usuario": usuario, "password": password}),
+              {"Content-Type": "application/json"})
+    r = c.getresponse()
+    cuerpo = r.read().decode()
+    if r.status != 200:
+        raise SystemExit(f"login falló: {r.status} {cuerpo}")
+    return cuerpo
+
+
+def sembrar(url, token, cantidad, id_personal):
+    """Inserta marcas históricas por /api/asistencia/lote para que el reporte tenga datos."""
+    c = conectar(url)
+    inicio = datetime(2025, 1, 6, 8, 0)
+    lote = 1000
+    for desde in range(0, cantidad, lote):
+        marcas = []
+        for i in range(desde, min(desde + lote, cantidad)):
+            fecha = inicio + timedelta(minutes=7 * i)
+            marcas.append({"personal": {"idPersonal": id_personal},
+                           "movimiento": {"idMovimiento": i % 4 + 1},
+                           "fecha": fecha.strftime("%Y-%m-%d %H:%M:%S"),
+                           "ipMarcador": "carga"})
+        c.request("POST", "/api/asistencia/lote", json.dumps(marcas),
+                  {"Content-Type": "application/json", "Authorization": "Bearer " + token})
+        r = c.getresponse()
+        r.read()
+        if r.status != 200:
+            raise SystemExit(f"sembrado falló: {r.status}")
+    print(f"sembradas {cantidad} marcas")
+
+
+class Resultados:
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.latencias = {"marca": [], "reporte": []}
+        self.errores = {"marca": 0, "reporte": 0}
+
+    def anotar(self, tipo, segundos, ok):
+        with self.lock:
+            if ok:
+                self.latencias[tipo].append(segundos)
+            else:
+                self.errores[tipo] += 1
+
+
+def cliente(url, token, fin, resultados, probabilidad_reporte, id_personal, semilla):
+    c = conectar(url)
+    cabeceras = {"Content-Type": "application/json", "Authorization": "Bearer " + token}
+    n = semilla
+    while time.monotonic() < fin:
+        n += 1
+        # Reparto determinista: cada cliente alterna según su propia secuencia
+        reporte = (n * 2654435761 % 1000) < probabilidad_reporte * 1000
+        try:
+            inicio = time.monotonic()
+            if reporte:
+                c.request("GET", "/api/reportes/resumen?desde=2025-01-01", headers=cabeceras)
+            else:
+                cuerpo = {"personal": {"idPersonal": id_personal}, "movimiento": {"idMovimiento": 1},
+                          "fecha": datetime.now().strftime("%Y-%m-%d %H:%M:%S"), "ipMarcador": "carga"}
+                c.request("POST", "/api/asistencia", json.dumps(cuerpo), cabeceras)
+            r = c.getresponse()
+            r.read()
+            resultados.anotar("reporte" if reporte else "marca", time.monotonic() - inicio, r.status == 200)
+        except (OSError, http.client.HTTPException):
+            resultados.anotar("reporte" if reporte else "marca", 0, False)
+            c.close()
+            c = conectar(url)
+
+
+def percentil(valores, p):
+    if not valores:
+        return float("nan")
+    valores = sorted(valores)
+    return valores[min(len(valores) - 1, int(len(valores) * p))]
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--url", default="http://localhost:8080")
+    parser.add_argument("--usuario", default="admin")
+    parser.add_argument("--password", default="admin123")
+    parser.add_argument("--id-personal", type=int, default=1)
+    parser.add_argument("--concurrencia", default="50,200,800")
+    parser.add_argument("--duracion", type=float, default=20)
+    parser.add_argument("--reportes", type=float, default=0.1, help="fracción de requests que son reportes")
+    parser.add_argument("--sembrar", type=int, default=0)
+    args = parser.parse_args()
+
+    token = login(args.url, args.usuario, args.password)
+    if args.sembrar:
+        sembrar(args.url, token, args.sembrar, args.id_personal)
+
+    print(f"{'clientes':>8} {'tipo':>8} {'req/s':>8} {'p50 ms':>8} {'p95 ms':>8} {'p99 ms':>8} {'errores':>8}")
+    for concurrencia in [int(x) for x in args.concurrencia.split(",")]:
+        resultados = Resultados()
+        fin = time.monotonic() + args.duracion
+        hilos = [threading.Thread(target=cliente, daemon=True,
+                                  args=(args.url, token, fin, resultados, args.reportes, args.id_personal, i * 7919))
+                 for i in range(concurrencia)]
+        for h in hilos:
+            h.start()
+        for h in hilos:
+            h.join()
+        for tipo in ("marca", "reporte"):
+            lat = resultados.latencias[tipo]
+            print(f"{concurrencia:>8} {tipo:>8} {len(lat) / args.duracion:>8.1f} "
+                  f"{percentil(lat, 0.5) * 1000:>8.0f} {percentil(lat, 0.95) * 1000:>8.0f} "
+                  f"{percentil(lat, 0.99) * 1000:>8.0f} {resultados.errores[tipo]:>8}")
+
+
+if __name__ == "__main__":
+    main()